@@ -1,5 +1,6 @@
 package org.task.userservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,18 +10,25 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.task.userservice.repository.UserRepository;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.task.userservice.service.PasswordUpgradeService;
+import org.task.userservice.service.UserProfileCache;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @RequiredArgsConstructor
 public class AppConfig {
-    private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
+    private final PasswordHashingProperties passwordHashingProperties;
+    private final PasswordUpgradeService passwordUpgradeService;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository
+        return username -> userProfileCache
                 .findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
@@ -30,12 +38,23 @@ public class AppConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(passwordUpgradeService);
         return authProvider;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(PasswordEncoders.create(passwordHashingProperties), passwordHashingProperties, meterRegistry);
+    }
+
+    /**
+     * Hashes passwords of imported users. Shared by all imports, so concurrent imports queue for
+     * the same threads instead of each starting a pool of their own.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService userImportHashingExecutor(UserImportProperties userImportProperties) {
+        return Executors.newFixedThreadPool(userImportProperties.resolvedHashingThreads(),
+                new CustomizableThreadFactory("user-import-hashing-"));
     }
 
     @Bean
@@ -0,0 +1,46 @@
+package org.task.userservice.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.response.InfoResponse;
+
+/**
+ * {@code application/cbor} for internal callers. Profiles and doctors are written as arrays in the
+ * declared field order below, and enums as ordinals. Append fields and enum constants only at the
+ * end, since clients decode by position. JSON responses are unchanged.
+ */
+@Configuration
+public class CompactWireFormat {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(mapper());
+    }
+
+    public static ObjectMapper mapper() {
+        return CBORMapper.builder()
+                .addMixIn(InfoResponse.class, InfoResponseFormat.class)
+                .addMixIn(UserNameSurname.class, UserNameSurnameFormat.class)
+                .enable(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"id", "firstName", "lastName", "email", "phone", "role", "services"})
+    private interface InfoResponseFormat {
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"doctorId", "firstname", "lastname"})
+    private interface UserNameSurnameFormat {
+    }
+}
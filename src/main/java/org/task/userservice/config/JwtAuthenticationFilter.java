@@ -1,5 +1,8 @@
 package org.task.userservice.config;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,15 +10,19 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.task.userservice.service.AuthFailureMetrics;
 import org.task.userservice.service.JwtService;
+import org.task.userservice.service.TokenRevocations;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -23,6 +30,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final JwtProperties jwtProperties;
+    private final TokenContext tokenContext;
+    private final TokenRevocations tokenRevocations;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -39,10 +50,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        final Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired, tampered or unknown-key tokens leave the request unauthenticated.
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (tokenRevocations.isRevoked(claims)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        tokenContext.setClaims(claims);
+        if (jwtProperties.isClaimsTrusted()) {
+            authenticateFromClaims(claims, request);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        userEmail = claims.getSubject();
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
@@ -52,4 +82,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private void authenticateFromClaims(Claims claims, HttpServletRequest request) {
+        if (claims.getSubject() == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        JwtPrincipal principal;
+        try {
+            principal = JwtPrincipal.fromClaims(claims);
+        } catch (JwtException e) {
+            // A role that no longer exists leaves the request unauthenticated, like any other invalid claim.
+            AuthFailureMetrics.record(meterRegistry, AuthFailureMetrics.SOURCE_TOKEN, e);
+            return;
+        }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.role() != null
+                        ? List.of(new SimpleGrantedAuthority(principal.role().name()))
+                        : List.of()
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
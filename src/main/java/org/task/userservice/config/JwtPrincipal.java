@@ -0,0 +1,38 @@
+package org.task.userservice.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.IncorrectClaimException;
+import org.task.userservice.enums.Role;
+import org.task.userservice.service.JwtService;
+
+import java.security.Principal;
+
+public record JwtPrincipal(String email, Role role, Integer userId) implements Principal {
+
+    /**
+     * @throws IncorrectClaimException when the role claim names no current {@link Role}, e.g. in a
+     * token issued before the role was renamed or removed
+     */
+    public static JwtPrincipal fromClaims(Claims claims) {
+        String role = claims.get(JwtService.ROLE_CLAIM, String.class);
+        Number userId = claims.get(JwtService.USER_ID_CLAIM, Number.class);
+        return new JwtPrincipal(
+                claims.getSubject(),
+                role != null ? parseRole(claims, role) : null,
+                userId != null ? userId.intValue() : null
+        );
+    }
+
+    private static Role parseRole(Claims claims, String role) {
+        try {
+            return Role.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            throw new IncorrectClaimException(null, claims, JwtService.ROLE_CLAIM, role, "Unknown role claim: " + role);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,90 @@
+package org.task.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+    /**
+     * When enabled the authentication filter builds the principal from the verified
+     * token claims only and does not load the user from the database.
+     */
+    private boolean claimsTrusted = false;
+
+    /**
+     * Lifetime of issued access tokens.
+     */
+    private Duration accessTokenTtl = Duration.ofMinutes(15);
+
+    /**
+     * Lifetime of a refresh token family, counted from login.
+     */
+    private Duration refreshTokenTtl = Duration.ofDays(14);
+
+    private final Cache cache = new Cache();
+
+    private final Signing signing = new Signing();
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        /**
+         * Upper bound for how long verified claims are reused. Entries never outlive
+         * the expiration of the token itself.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Signing {
+        /**
+         * Asymmetric JWS algorithm for new tokens, ES256 or RS256.
+         */
+        private String algorithm = "ES256";
+        /**
+         * Key ring shared by all instances. Startup fails when empty unless generate-ephemeral-key is set.
+         * To rotate, add the new key everywhere, reload, then switch active-kid and reload again.
+         */
+        private List<Key> keys = new ArrayList<>();
+        /**
+         * Generate a key pair at startup when no keys are configured. For local development only: tokens
+         * are rejected by other instances and invalidated by every restart.
+         */
+        private boolean generateEphemeralKey = false;
+        /**
+         * Key id that signs new tokens. Defaults to the first key with a private key.
+         */
+        private String activeKid;
+        /**
+         * Accept HS256 tokens without a key id, issued before asymmetric signing. Requires legacy-secret.
+         */
+        private boolean acceptLegacyHs256 = false;
+        /**
+         * Base64 HS256 secret of the legacy tokens.
+         */
+        private String legacySecret;
+        /**
+         * Legacy tokens carry no expiration; they are rejected once their issue time is older than this.
+         */
+        private Duration legacyMaxAge = Duration.ofDays(1);
+    }
+
+    @Data
+    public static class Key {
+        private String kid;
+        /**
+         * Base64 PKCS#8 private key; omit for keys that only verify.
+         */
+        private String privateKey;
+        /**
+         * Base64 X.509 public key.
+         */
+        private String publicKey;
+    }
+}
@@ -0,0 +1,18 @@
+package org.task.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "login-cache")
+public class LoginCacheProperties {
+    /**
+     * Reuse the token issued for the same credentials within {@link #ttl} instead of verifying again.
+     * Concurrent identical logins are coalesced either way.
+     */
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofSeconds(10);
+}
@@ -0,0 +1,174 @@
+package org.task.userservice.config;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class PasswordEncoders {
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    /**
+     * Output size of {@link Pbkdf2PasswordEncoder} built with an algorithm but no hash width.
+     */
+    private static final int PBKDF2_HASH_BYTES = 32;
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * Builds a {@link DelegatingPasswordEncoder} that writes {@code {id}}-prefixed hashes.
+     * Hashes stored before prefixes were introduced are plain BCrypt and still match. A stored
+     * hash asks for an upgrade whenever its parameters differ from the configured ones, so
+     * lowering a cost rehashes as well as raising it.
+     */
+    public static DelegatingPasswordEncoder create(PasswordHashingProperties properties) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt(properties.getBcrypt()));
+        encoders.put(ARGON2, argon2(properties.getArgon2()));
+        encoders.put(PBKDF2, pbkdf2(properties.getPbkdf2()));
+        if (!encoders.containsKey(properties.getEncoder())) {
+            throw new IllegalArgumentException("Unknown password encoder: " + properties.getEncoder());
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(properties.getEncoder(), encoders);
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(properties.getBcrypt().getStrength()));
+        return encoder;
+    }
+
+    public static PasswordEncoder bcrypt(PasswordHashingProperties.Bcrypt bcrypt) {
+        return new ExactParameters(new BCryptPasswordEncoder(bcrypt.getStrength()),
+                hash -> bcryptCost(hash) == bcrypt.getStrength());
+    }
+
+    public static PasswordEncoder argon2(PasswordHashingProperties.Argon2 argon2) {
+        String parameters = "m=" + argon2.getMemory() + ",t=" + argon2.getIterations() + ",p=" + argon2.getParallelism();
+        return new ExactParameters(new Argon2PasswordEncoder(
+                argon2.getSaltLength(),
+                argon2.getHashLength(),
+                argon2.getParallelism(),
+                argon2.getMemory(),
+                argon2.getIterations()
+        ), hash -> hasArgon2Parameters(hash, parameters, argon2.getSaltLength(), argon2.getHashLength()));
+    }
+
+    public static PasswordEncoder pbkdf2(PasswordHashingProperties.Pbkdf2 pbkdf2) {
+        return new IterationTaggedPbkdf2(pbkdf2.getSaltLength(), pbkdf2.getIterations());
+    }
+
+    private static int bcryptCost(String hash) {
+        Matcher matcher = BCRYPT_COST.matcher(hash);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * Argon2 hashes read {@code $argon2id$v=19$m=..,t=..,p=..$salt$hash} with unpadded base64 salt and hash.
+     */
+    private static boolean hasArgon2Parameters(String hash, String parameters, int saltLength, int hashLength) {
+        String[] parts = hash.split("\\$");
+        if (parts.length != 6 || !parts[3].equals(parameters)) {
+            return false;
+        }
+        try {
+            return Base64.getDecoder().decode(parts[4]).length == saltLength
+                    && Base64.getDecoder().decode(parts[5]).length == hashLength;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Leaves hashing to the delegate but asks for an upgrade unless the hash was made with the current parameters.
+     */
+    private record ExactParameters(PasswordEncoder delegate, Predicate<String> current) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return encodedPassword == null || !current.test(encodedPassword);
+        }
+    }
+
+    /**
+     * PBKDF2 hashes do not record their iteration count, so new ones are stored as
+     * {@code <iterations>$<hex salt and hash>}. Untagged hashes from before are checked with the
+     * configured iterations and upgraded on the next login.
+     */
+    private static final class IterationTaggedPbkdf2 implements PasswordEncoder {
+        private final int saltLength;
+        private final int iterations;
+        private final Pbkdf2PasswordEncoder current;
+        private final Map<Integer, Pbkdf2PasswordEncoder> byIterations = new ConcurrentHashMap<>();
+
+        IterationTaggedPbkdf2(int saltLength, int iterations) {
+            this.saltLength = saltLength;
+            this.iterations = iterations;
+            this.current = encoder(iterations);
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return iterations + "$" + current.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (encodedPassword == null) {
+                return false;
+            }
+            int separator = encodedPassword.indexOf('$');
+            if (separator < 0) {
+                return current.matches(rawPassword, encodedPassword);
+            }
+            int storedIterations;
+            try {
+                storedIterations = Integer.parseInt(encodedPassword.substring(0, separator));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            Pbkdf2PasswordEncoder encoder = storedIterations == iterations
+                    ? current
+                    : byIterations.computeIfAbsent(storedIterations, this::encoder);
+            return encoder.matches(rawPassword, encodedPassword.substring(separator + 1));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) {
+                return true;
+            }
+            int separator = encodedPassword.indexOf('$');
+            return separator < 0
+                    || !encodedPassword.substring(0, separator).equals(Integer.toString(iterations))
+                    || encodedPassword.length() - separator - 1 != 2 * (saltLength + PBKDF2_HASH_BYTES);
+        }
+
+        private Pbkdf2PasswordEncoder encoder(int iterations) {
+            return new Pbkdf2PasswordEncoder(
+                    "",
+                    saltLength,
+                    iterations,
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256
+            );
+        }
+    }
+}
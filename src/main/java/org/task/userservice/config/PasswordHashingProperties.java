@@ -0,0 +1,56 @@
+package org.task.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+    /**
+     * Hashing threads; 0 uses the number of available processors.
+     */
+    private int threads = 0;
+    /**
+     * Hash requests allowed to wait for a thread before new ones are rejected with 429.
+     */
+    private int queueCapacity = 64;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    /**
+     * Id of the encoder used for new hashes: bcrypt, argon2 or pbkdf2. Stored hashes of
+     * any other id, or with parameters other than the configured ones, are rehashed on the next successful login.
+     */
+    private String encoder = PasswordEncoders.BCRYPT;
+
+    private final Bcrypt bcrypt = new Bcrypt();
+    private final Argon2 argon2 = new Argon2();
+    private final Pbkdf2 pbkdf2 = new Pbkdf2();
+
+    public int resolvedThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Data
+    public static class Bcrypt {
+        private int strength = 10;
+    }
+
+    @Data
+    public static class Argon2 {
+        private int saltLength = 16;
+        private int hashLength = 32;
+        private int parallelism = 1;
+        /**
+         * Memory cost in KiB.
+         */
+        private int memory = 16384;
+        private int iterations = 2;
+    }
+
+    @Data
+    public static class Pbkdf2 {
+        private int saltLength = 16;
+        private int iterations = 310_000;
+    }
+}
@@ -0,0 +1,15 @@
+package org.task.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "reference-data")
+public class ReferenceDataProperties {
+    /**
+     * Cache-Control max-age sent with precomputed reference data responses.
+     */
+    private Duration maxAge = Duration.ofHours(1);
+}
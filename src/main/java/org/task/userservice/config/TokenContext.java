@@ -0,0 +1,32 @@
+package org.task.userservice.config;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.stereotype.Component;
+import org.task.userservice.service.JwtService;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Holds the claims of the bearer token verified by {@link JwtAuthenticationFilter}
+ * for the current request, so the token is parsed only once.
+ */
+@Component
+@RequestScope
+@Getter
+@Setter
+public class TokenContext {
+    private Claims claims;
+
+    public String getSubject() {
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    /**
+     * The user id embedded at issue time, or {@code null} for tokens issued before it was added.
+     */
+    public Integer getUserId() {
+        Number userId = claims != null ? claims.get(JwtService.USER_ID_CLAIM, Number.class) : null;
+        return userId != null ? userId.intValue() : null;
+    }
+}
@@ -0,0 +1,27 @@
+package org.task.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "user-import")
+public class UserImportProperties {
+    /**
+     * Rows hashed and inserted per transaction. Keep it a multiple of
+     * {@code hibernate.jdbc.batch_size}.
+     */
+    private int batchSize = 500;
+    /**
+     * Threads hashing passwords, shared by all running imports; 0 uses half the available processors
+     * so an import leaves cores for login and register hashing.
+     */
+    private int hashingThreads = 0;
+    /**
+     * Row errors listed in an import response; {@code failed} still counts all of them.
+     */
+    private int maxListedErrors = 1000;
+
+    public int resolvedHashingThreads() {
+        return hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+}
@@ -0,0 +1,13 @@
+package org.task.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "user-info")
+public class UserInfoProperties {
+    /**
+     * Maximum number of distinct ids accepted by the batch user info endpoint.
+     */
+    private int batchMaxSize = 200;
+}
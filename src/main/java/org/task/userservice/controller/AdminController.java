@@ -0,0 +1,30 @@
+package org.task.userservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.task.userservice.response.ImportResponse;
+import org.task.userservice.service.DoctorIndex;
+import org.task.userservice.service.UserImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+public class AdminController {
+    private final DoctorIndex doctorIndex;
+    private final UserImportService userImportService;
+
+    @PostMapping("/doctors/index/rebuild")
+    public ResponseEntity<Void> rebuildDoctorIndex(){
+        doctorIndex.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping(value = "/users/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ImportResponse> importUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(body));
+    }
+}
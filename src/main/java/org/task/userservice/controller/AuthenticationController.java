@@ -5,7 +5,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.task.userservice.enums.Role;
 import org.task.userservice.exceptions.EmailAlreadyInUseException;
+import org.task.userservice.exceptions.InvalidRefreshTokenException;
+import org.task.userservice.exceptions.RoleNotAllowedException;
 import org.task.userservice.response.AuthenticationResponse;
+import org.task.userservice.request.RefreshRequest;
 import org.task.userservice.request.RegisterRequest;
 import org.task.userservice.service.AuthenticationService;
 
@@ -19,7 +22,7 @@ public class AuthenticationController {
     @PostMapping("/register")
     public ResponseEntity<AuthenticationResponse> register(
             @RequestBody RegisterRequest request
-    ) throws EmailAlreadyInUseException {
+    ) throws EmailAlreadyInUseException, RoleNotAllowedException {
         return ResponseEntity.ok(service.register(request));
     }
 
@@ -29,4 +32,19 @@ public class AuthenticationController {
     ) {
         return ResponseEntity.ok(service.authenticate(request));
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(
+            @RequestBody RefreshRequest request
+    ) throws InvalidRefreshTokenException {
+        return ResponseEntity.ok(service.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestBody RefreshRequest request
+    ) throws InvalidRefreshTokenException {
+        service.logout(request);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,36 @@
+package org.task.userservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.task.userservice.service.JsonResponseCache;
+import org.task.userservice.service.JwtKeyRing;
+import org.task.userservice.service.VerifiedTokenCache;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    public static final String JWKS_CACHE_KEY = "jwks";
+
+    private final JwtKeyRing jwtKeyRing;
+    private final JsonResponseCache jsonResponseCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> getJwks(){
+        return jsonResponseCache.respond(JWKS_CACHE_KEY, jwtKeyRing::jwkSet);
+    }
+
+    /**
+     * Picks up changed {@code jwt.signing} keys after {@code /actuator/refresh} has rebound the properties.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reloadKeys(){
+        jwtKeyRing.reload();
+        verifiedTokenCache.invalidateAll();
+        jsonResponseCache.invalidate(JWKS_CACHE_KEY);
+    }
+}
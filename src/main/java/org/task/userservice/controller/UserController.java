@@ -1,46 +1,111 @@
 package org.task.userservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.entity.UserVersion;
 import org.task.userservice.enums.MedicalService;
+import org.task.userservice.exceptions.BatchSizeExceededException;
+import org.task.userservice.exceptions.UnknownMedicalServiceException;
+import org.task.userservice.response.DoctorPageResponse;
 import org.task.userservice.response.InfoResponse;
 import org.task.userservice.service.AuthenticationService;
+import org.task.userservice.service.JsonResponseCache;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/user")
 @RequiredArgsConstructor
 public class UserController {
     private final AuthenticationService service;
+    private final ObjectMapper objectMapper;
+    private final JsonResponseCache jsonResponseCache;
 
     @GetMapping("/")
-    public ResponseEntity<InfoResponse> getUser(@RequestHeader(name = "Authorization") String token){
-        return ResponseEntity.ok(service.getUserInfo(token.substring(7)));
+    public ResponseEntity<InfoResponse> getUser(WebRequest request, HttpServletResponse response){
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = service.getUserInfoVersion().map(UserController::profileETag).orElse(null);
+        if(etag != null && request.checkNotModified(etag)){
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(service.getUserInfo());
     }
 
     @GetMapping("/doctors/")
-    public List<UserNameSurname> getDoctorsForService(@RequestParam String medicalService){
+    public List<UserNameSurname> getDoctorsForService(@RequestParam String medicalService) throws UnknownMedicalServiceException {
         return service.getDoctorsForService(medicalService);
     }
 
+    @GetMapping("/doctors/page")
+    public DoctorPageResponse getDoctorsPageForService(@RequestParam String medicalService,
+                                                       @RequestParam(defaultValue = "0") int after,
+                                                       @RequestParam(defaultValue = "50") int limit) throws UnknownMedicalServiceException {
+        return service.getDoctorsPageForService(medicalService, after, limit);
+    }
+
+    @GetMapping("/doctors/stream")
+    public ResponseEntity<StreamingResponseBody> streamDoctorsForService(@RequestParam String medicalService) throws UnknownMedicalServiceException {
+        MedicalService parsedService = service.parseMedicalService(medicalService);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                service.streamDoctorsForService(parsedService, doctor -> {
+                    try {
+                        generator.writeObject(doctor);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/userId")
-    public int getUserId(@RequestHeader(name = "Authorization") String token){
-        return service.getUserId(token.substring(7));
+    public int getUserId(){
+        return service.getUserId();
     }
 
     @GetMapping("/userInfo/{id}")
-    public ResponseEntity<InfoResponse> getUserInfo(@PathVariable int id){
-        return ResponseEntity.ok(service.getUserInfoById(id));
+    public ResponseEntity<InfoResponse> getUserInfo(@PathVariable int id, WebRequest request, HttpServletResponse response){
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = service.getUserInfoVersionById(id).map(UserController::profileETag).orElse(null);
+        if(etag != null && request.checkNotModified(etag)){
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(service.getUserInfoById(id));
+    }
+
+    @PostMapping("/userInfo/batch")
+    public ResponseEntity<Map<Integer, InfoResponse>> getUserInfoBatch(@RequestBody List<Integer> ids) throws BatchSizeExceededException {
+        return ResponseEntity.ok(service.getUserInfoByIds(ids));
     }
 
     @GetMapping("/services")
-    public List<String> getServices(){
-        return Arrays.stream(MedicalService.values())
+    public ResponseEntity<byte[]> getServices(){
+        return jsonResponseCache.respond("services", () -> Arrays.stream(MedicalService.values())
                 .map(MedicalService::getValue)
-                .toList();
+                .toList());
+    }
+
+    /**
+     * Weak, because the JSON and CBOR representations of a profile share the tag.
+     */
+    private static String profileETag(UserVersion version){
+        return "W/\"" + version.id() + "-" + version.version() + "\"";
     }
 }
@@ -0,0 +1,37 @@
+package org.task.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * One login's chain of refresh tokens. Only the hash of the newest token is stored; presenting
+ * an older one means the chain was copied, and the whole family is revoked.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "token_family", indexes = @Index(name = "ix_token_family_email", columnList = "email"))
+public class TokenFamily {
+    @Id
+    private String id;
+    @Column(nullable = false)
+    private String email;
+    @Column(nullable = false)
+    private String tokenHash;
+    private int generation;
+    @Column(nullable = false)
+    private Instant expiresAt;
+    private boolean revoked;
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+}
@@ -5,7 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.task.userservice.enums.MedicalService;
 import org.task.userservice.enums.Role;
@@ -18,10 +20,13 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "_user")
+@Table(name = "_user", indexes = @Index(name = User.EMAIL_INDEX, columnList = "email", unique = true))
 public class User implements UserDetails {
+    public static final String EMAIL_INDEX = "ux_user_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "_user_seq", allocationSize = 50)
     private int id;
     private String password;
     private String firstName;
@@ -30,11 +35,17 @@ public class User implements UserDetails {
     private String phone;
     private Role role;
     @ElementCollection
+    @CollectionTable(name = "user_services", joinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "ix_user_services_service_user", columnList = "services, user_id"))
     private List<MedicalService> services;
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of();
+        return role != null ? List.of(new SimpleGrantedAuthority(role.name())) : List.of();
     }
 
     @Override
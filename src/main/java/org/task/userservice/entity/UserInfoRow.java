@@ -0,0 +1,7 @@
+package org.task.userservice.entity;
+
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.enums.Role;
+
+public record UserInfoRow(int id, String firstName, String lastName, String email, String phone, Role role, MedicalService service) {
+}
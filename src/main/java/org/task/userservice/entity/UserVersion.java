@@ -0,0 +1,4 @@
+package org.task.userservice.entity;
+
+public record UserVersion(int id, long version) {
+}
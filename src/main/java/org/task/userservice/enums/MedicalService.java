@@ -1,11 +1,31 @@
 package org.task.userservice.enums;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
 public enum MedicalService {
     GENERAL_CHECKUP("General checkup"),
     DENTAL_CLEANING("Dental cleaning"),
     CARDIOLOGY_CONSULTATION("Cardiology consultation"),
     DERMATOLOGY_CONSULTATION("Dermatology consultation"),;
 
+    /**
+     * Display values and constant names, both as declared and trimmed and lower-cased, mapped to their service.
+     * The as-declared keys let well-formed input skip normalization.
+     */
+    private static final Map<String, MedicalService> LOOKUP = new HashMap<>();
+
+    static {
+        for (MedicalService service : values()) {
+            LOOKUP.put(service.value, service);
+            LOOKUP.put(service.name(), service);
+            LOOKUP.put(normalize(service.value), service);
+            LOOKUP.put(normalize(service.name()), service);
+        }
+    }
+
     private String value;
     MedicalService(String value) {
         this.value = value;
@@ -14,13 +34,18 @@ public enum MedicalService {
         return value;
     }
 
-    public static MedicalService fromString(String text) {
-        for (MedicalService service : MedicalService.values()) {
-            if (service.value.equalsIgnoreCase(text)) {
-                return service;
-            }
+    /**
+     * Case-insensitive lookup by display value ("General checkup") or constant name ("GENERAL_CHECKUP").
+     */
+    public static Optional<MedicalService> parse(String text) {
+        if (text == null) {
+            return Optional.empty();
         }
-        return null;
+        MedicalService service = LOOKUP.get(text);
+        return Optional.ofNullable(service != null ? service : LOOKUP.get(normalize(text)));
     }
-}
 
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,5 +2,6 @@ package org.task.userservice.enums;
 
 public enum Role {
     DOCTOR,
-    PATIENT
+    PATIENT,
+    ADMIN
 }
@@ -1,11 +1,17 @@
 package org.task.userservice.exceptionHandler;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.task.userservice.exceptions.BatchSizeExceededException;
 import org.task.userservice.exceptions.EmailAlreadyInUseException;
+import org.task.userservice.exceptions.InvalidRefreshTokenException;
+import org.task.userservice.exceptions.PasswordHashingOverloadedException;
+import org.task.userservice.exceptions.RoleNotAllowedException;
+import org.task.userservice.exceptions.UnknownMedicalServiceException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -32,4 +38,56 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
+
+    @ExceptionHandler(value = BatchSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleBatchSizeExceededException(BatchSizeExceededException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", ex.getMessage());
+        response.put("code", "BATCH_TOO_LARGE");
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = UnknownMedicalServiceException.class)
+    public ResponseEntity<Map<String, Object>> handleUnknownMedicalServiceException(UnknownMedicalServiceException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", ex.getMessage());
+        response.put("code", "UNKNOWN_MEDICAL_SERVICE");
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = RoleNotAllowedException.class)
+    public ResponseEntity<Map<String, Object>> handleRoleNotAllowedException(RoleNotAllowedException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", ex.getMessage());
+        response.put("code", "ROLE_NOT_ALLOWED");
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = InvalidRefreshTokenException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRefreshTokenException(InvalidRefreshTokenException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", ex.getMessage());
+        response.put("code", "INVALID_REFRESH_TOKEN");
+
+        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(value = PasswordHashingOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handlePasswordHashingOverloadedException(PasswordHashingOverloadedException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", ex.getMessage());
+        response.put("code", "TOO_MANY_REQUESTS");
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response);
+    }
 }
@@ -0,0 +1,7 @@
+package org.task.userservice.exceptions;
+
+public class BatchSizeExceededException extends Exception{
+    public BatchSizeExceededException(String message){
+        super(message);
+    }
+}
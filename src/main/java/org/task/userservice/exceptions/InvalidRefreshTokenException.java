@@ -0,0 +1,7 @@
+package org.task.userservice.exceptions;
+
+public class InvalidRefreshTokenException extends Exception{
+    public InvalidRefreshTokenException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package org.task.userservice.exceptions;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class PasswordHashingOverloadedException extends RuntimeException{
+    private final Duration retryAfter;
+
+    public PasswordHashingOverloadedException(String message, Duration retryAfter){
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
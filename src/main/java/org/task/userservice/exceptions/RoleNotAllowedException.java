@@ -0,0 +1,7 @@
+package org.task.userservice.exceptions;
+
+public class RoleNotAllowedException extends Exception{
+    public RoleNotAllowedException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.task.userservice.exceptions;
+
+public class UnknownMedicalServiceException extends Exception{
+    public UnknownMedicalServiceException(String message){
+        super(message);
+    }
+}
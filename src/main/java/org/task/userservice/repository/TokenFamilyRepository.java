@@ -0,0 +1,30 @@
+package org.task.userservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.task.userservice.entity.TokenFamily;
+
+import java.time.Instant;
+
+@Repository
+public interface TokenFamilyRepository extends JpaRepository<TokenFamily, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TokenFamily f SET f.revoked = true WHERE f.id = :id")
+    int revokeById(@Param("id") String id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TokenFamily f SET f.revoked = true WHERE f.email = :email AND f.revoked = false")
+    int revokeAllByEmail(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenFamily f WHERE f.revoked = true OR f.expiresAt < :now")
+    int deleteEnded(@Param("now") Instant now);
+}
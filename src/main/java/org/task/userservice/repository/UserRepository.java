@@ -1,20 +1,84 @@
 package org.task.userservice.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.task.userservice.entity.User;
+import org.task.userservice.entity.UserInfoRow;
 import org.task.userservice.entity.UserNameSurname;
 import org.task.userservice.enums.MedicalService;
+import org.task.userservice.response.InfoResponse;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
 
-    @Query("SELECT new org.task.userservice.entity.UserNameSurname(u.id, u.firstName, u.lastName) FROM User u JOIN u.services s WHERE s = :service")
+    @EntityGraph(attributePaths = "services")
+    Optional<User> findWithServicesByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
+    @EntityGraph(attributePaths = "services")
+    Optional<User> findWithServicesById(int id);
+
+    @Query("SELECT new org.task.userservice.entity.UserNameSurname(u.id, u.firstName, u.lastName) FROM User u JOIN u.services s WHERE s = :service ORDER BY u.id")
     Optional<List<UserNameSurname>> findUsersByService(@Param("service") MedicalService service);
+
+    /**
+     * Keyset page: doctors with an id greater than {@code after}, in id order, at most the page size of {@code page}.
+     */
+    @Query("SELECT new org.task.userservice.entity.UserNameSurname(u.id, u.firstName, u.lastName) FROM User u JOIN u.services s WHERE s = :service AND u.id > :after ORDER BY u.id")
+    List<UserNameSurname> findUsersByServiceAfter(@Param("service") MedicalService service, @Param("after") int after, Pageable page);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.task.userservice.entity.UserNameSurname(u.id, u.firstName, u.lastName) FROM User u JOIN u.services s WHERE s = :service ORDER BY u.id")
+    Stream<UserNameSurname> streamUsersByService(@Param("service") MedicalService service);
+
+    @Query("SELECT new org.task.userservice.entity.UserInfoRow(u.id, u.firstName, u.lastName, u.email, u.phone, u.role, s) FROM User u LEFT JOIN u.services s WHERE u.id IN :ids")
+    List<UserInfoRow> findInfoRowsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    default List<InfoResponse> findInfoByIdIn(Collection<Integer> ids) {
+        return toInfoResponses(findInfoRowsByIdIn(ids));
+    }
+
+    private static List<InfoResponse> toInfoResponses(List<UserInfoRow> rows) {
+        Map<Integer, InfoResponse> infos = new LinkedHashMap<>();
+        for (UserInfoRow row : rows) {
+            InfoResponse info = infos.computeIfAbsent(row.id(), id -> InfoResponse.builder()
+                    .id(row.id())
+                    .firstName(row.firstName())
+                    .lastName(row.lastName())
+                    .email(row.email())
+                    .phone(row.phone())
+                    .role(row.role())
+                    .services(new ArrayList<>())
+                    .build());
+            if (row.service() != null) {
+                info.getServices().add(row.service());
+            }
+        }
+        return new ArrayList<>(infos.values());
+    }
 }
@@ -12,5 +12,6 @@ import org.task.userservice.enums.Role;
 @NoArgsConstructor
 public class AuthenticationResponse {
     private String token;
+    private String refreshToken;
     private Role role;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.task.userservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.task.userservice.entity.UserNameSurname;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DoctorPageResponse {
+    private List<UserNameSurname> doctors;
+    private Integer nextCursor;
+}
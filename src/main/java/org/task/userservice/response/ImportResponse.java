@@ -0,0 +1,18 @@
+package org.task.userservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportResponse {
+    private int imported;
+    private int failed;
+    private List<ImportRowError> errors;
+}
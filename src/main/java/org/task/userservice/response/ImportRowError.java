@@ -0,0 +1,4 @@
+package org.task.userservice.response;
+
+public record ImportRowError(int line, String email, String message) {
+}
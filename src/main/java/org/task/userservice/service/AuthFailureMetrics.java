@@ -0,0 +1,30 @@
+package org.task.userservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts failed logins, published by the authentication manager, and rejected bearer tokens
+ * as {@code auth.failures} tagged with the source and the exception that caused them.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthFailureMetrics {
+    public static final String AUTH_FAILURES = "auth.failures";
+    public static final String SOURCE_LOGIN = "login";
+    public static final String SOURCE_TOKEN = "token";
+
+    private final MeterRegistry meterRegistry;
+
+    @EventListener
+    public void onAuthenticationFailure(AbstractAuthenticationFailureEvent event) {
+        record(meterRegistry, SOURCE_LOGIN, event.getException());
+    }
+
+    public static void record(MeterRegistry meterRegistry, String source, Throwable cause) {
+        meterRegistry.counter(AUTH_FAILURES, "source", source, "cause", cause.getClass().getSimpleName()).increment();
+    }
+}
@@ -1,70 +1,137 @@
 package org.task.userservice.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.task.userservice.config.TokenContext;
+import org.task.userservice.config.UserInfoProperties;
 import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.entity.UserVersion;
 import org.task.userservice.enums.MedicalService;
 import org.task.userservice.enums.Role;
+import org.task.userservice.exceptions.BatchSizeExceededException;
 import org.task.userservice.exceptions.EmailAlreadyInUseException;
+import org.task.userservice.exceptions.InvalidRefreshTokenException;
+import org.task.userservice.exceptions.RoleNotAllowedException;
+import org.task.userservice.exceptions.UnknownMedicalServiceException;
 import org.task.userservice.response.AuthenticationResponse;
+import org.task.userservice.response.DoctorPageResponse;
+import org.task.userservice.request.RefreshRequest;
 import org.task.userservice.request.RegisterRequest;
 import org.task.userservice.entity.User;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.task.userservice.repository.UserRepository;
 import org.task.userservice.response.InfoResponse;
 
 import java.security.InvalidParameterException;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
+    private static final int MAX_DOCTORS_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenContext tokenContext;
+    private final UserProfileCache userProfileCache;
+    private final DoctorIndex doctorIndex;
+    private final UserInfoProperties userInfoProperties;
+    private final LoginCoalescer loginCoalescer;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthenticationResponse register(RegisterRequest request) throws EmailAlreadyInUseException {
-        if(userRepository.findByEmail(request.getEmail()).isEmpty()) {
-            var user = User.builder()
-                    .firstName(request.getFirstname())
-                    .lastName(request.getLastname())
-                    .email(request.getEmail())
-                    .password(passwordEncoder.encode(request.getPassword()))
-                    .role(request.getRole())
-                    .phone(request.getPhone())
-                    .services(request.getServices())
-                    .build();
-
-            userRepository.save(user);
-            var role = user.getRole();
-            HashMap<String, Object> extraclaims = new HashMap<>();
-            extraclaims.put("role", role);
-            var jwtToken = jwtService.generateToken(extraclaims, user);
-            return AuthenticationResponse.builder().token(jwtToken).role(role).build();
+    public AuthenticationResponse register(RegisterRequest request) throws EmailAlreadyInUseException, RoleNotAllowedException {
+        if (Role.ADMIN.equals(request.getRole())) {
+            throw new RoleNotAllowedException("Admin accounts cannot be registered");
         }
+        var user = User.builder()
+                .firstName(request.getFirstname())
+                .lastName(request.getLastname())
+                .email(request.getEmail())
+                .password(passwordEncoder.encode(request.getPassword()))
+                .role(request.getRole())
+                .phone(request.getPhone())
+                .services(request.getServices())
+                .build();
 
-        throw new EmailAlreadyInUseException("User with this email already exists");
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new EmailAlreadyInUseException("User with this email already exists");
+            }
+            throw e;
+        }
+        userProfileCache.invalidate(user);
+        if (Role.DOCTOR.equals(user.getRole())) {
+            doctorIndex.add(user);
+        }
+        return tokenResponse(user, refreshTokenService.issue(user.getEmail()));
     }
 
+    /**
+     * Identical logins may share one access token through the login cache, but every response
+     * starts its own refresh token family, so even a cached login costs one insert. Families are
+     * never shared because each rotates independently.
+     */
     public AuthenticationResponse authenticate(RegisterRequest request) {
+        var response = loginCoalescer.authenticate(request.getEmail(), request.getPassword(), () -> login(request));
+        return AuthenticationResponse.builder()
+                .token(response.getToken())
+                .refreshToken(refreshTokenService.issue(request.getEmail()))
+                .role(response.getRole())
+                .build();
+    }
+
+    private AuthenticationResponse login(RegisterRequest request) {
         authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
                 request.getEmail(), request.getPassword()
         ));
-        var user = userRepository.findByEmail(request.getEmail()).orElseThrow();
+        var user = userProfileCache.findByEmail(request.getEmail()).orElseThrow();
+        return tokenResponse(user, null);
+    }
+
+    public AuthenticationResponse refresh(RefreshRequest request) throws InvalidRefreshTokenException {
+        var rotated = refreshTokenService.rotate(request.getRefreshToken());
+        var user = userProfileCache.findByEmail(rotated.email())
+                .orElseThrow(() -> new InvalidRefreshTokenException("User no longer exists"));
+        return tokenResponse(user, rotated.refreshToken());
+    }
+
+    public void logout(RefreshRequest request) throws InvalidRefreshTokenException {
+        refreshTokenService.revoke(request.getRefreshToken());
+    }
+
+    private AuthenticationResponse tokenResponse(User user, String refreshToken) {
         var role = user.getRole();
         HashMap<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("role", role);
+        extraClaims.put(JwtService.ROLE_CLAIM, role);
+        extraClaims.put(JwtService.USER_ID_CLAIM, user.getId());
+        if (Role.DOCTOR.equals(role) && user.getServices() != null) {
+            extraClaims.put(JwtService.SERVICES_CLAIM, user.getServices());
+        }
         var jwtToken = jwtService.generateToken(extraClaims, user);
-        return AuthenticationResponse.builder().token(jwtToken).role(role).build();
+        return AuthenticationResponse.builder().token(jwtToken).refreshToken(refreshToken).role(role).build();
     }
 
-    public InfoResponse getUserInfo(String token){
-        var user = userRepository.findByEmail(jwtService.extractUsername(token));
+    public InfoResponse getUserInfo(){
+        var user = userProfileCache.findByEmail(currentUserEmail());
         if(user.isPresent()){
             return InfoResponse.builder()
                     .id(user.get().getId())
@@ -79,17 +146,66 @@ public class AuthenticationService {
         throw new UsernameNotFoundException("User not found");
     }
 
-    public List<UserNameSurname> getDoctorsForService(String medicalService) {
-        MedicalService service = MedicalService.fromString(medicalService);
-        var users = userRepository.findUsersByService(service);
+    /**
+     * Version of the current user's profile, read from the profile cache, which loads a missing
+     * profile in one statement; the body is then built from the cached entry. Read it before the
+     * profile itself so the returned version is never newer than the body it tags.
+     */
+    public Optional<UserVersion> getUserInfoVersion(){
+        return userProfileCache.findByEmail(currentUserEmail()).map(AuthenticationService::version);
+    }
+
+    public Optional<UserVersion> getUserInfoVersionById(int id){
+        return userProfileCache.findById(id).map(AuthenticationService::version);
+    }
+
+    private static UserVersion version(User user){
+        return new UserVersion(user.getId(), user.getVersion());
+    }
+
+    public MedicalService parseMedicalService(String medicalService) throws UnknownMedicalServiceException {
+        return MedicalService.parse(medicalService)
+                .orElseThrow(() -> new UnknownMedicalServiceException("Unknown medical service: " + medicalService));
+    }
+
+    public List<UserNameSurname> getDoctorsForService(String medicalService) throws UnknownMedicalServiceException {
+        MedicalService service = parseMedicalService(medicalService);
+        var users = doctorIndex.findDoctors(service);
         if(users.isPresent()){
             return users.get();
         }
         throw new InvalidParameterException("No doctors for this service");
     }
 
-    public int getUserId(String token) {
-        var user = userRepository.findByEmail(jwtService.extractUsername(token));
+    /**
+     * Keyset page read from the database rather than the doctors index, so each page is one
+     * bounded query seeking past the {@code after} id.
+     */
+    public DoctorPageResponse getDoctorsPageForService(String medicalService, int after, int limit) throws UnknownMedicalServiceException {
+        MedicalService service = parseMedicalService(medicalService);
+        int pageSize = Math.max(1, Math.min(limit, MAX_DOCTORS_PAGE_SIZE));
+        var page = userRepository.findUsersByServiceAfter(service, after, PageRequest.ofSize(pageSize));
+        Integer nextCursor = page.size() == pageSize ? page.getLast().doctorId() : null;
+        return DoctorPageResponse.builder().doctors(page).nextCursor(nextCursor).build();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamDoctorsForService(MedicalService service, Consumer<UserNameSurname> consumer) {
+        try (var doctors = userRepository.streamUsersByService(service)) {
+            doctors.forEach(consumer);
+        }
+    }
+
+    /**
+     * Answered from the token's {@code userId} claim. Tokens issued before the claim existed fall
+     * back to the profile cache.
+     */
+    public int getUserId() {
+        Integer userId = tokenContext.getUserId();
+        if(userId != null){
+            return userId;
+        }
+        var user = userProfileCache.findByEmail(currentUserEmail());
         if(user.isPresent()){
             return user.get().getId();
         }
@@ -97,28 +213,69 @@ public class AuthenticationService {
     }
 
     public InfoResponse getUserInfoById(int id){
-        var user = userRepository.findById(id);
+        var user = userProfileCache.findById(id);
         if(user.isPresent()){
-            if(user.get().getRole().equals(Role.PATIENT)) {
-                return InfoResponse.builder()
-                        .id(user.get().getId())
-                        .phone(user.get().getPhone())
-                        .email(user.get().getEmail())
-                        .firstName(user.get().getFirstName())
-                        .lastName(user.get().getLastName())
-                        .role(user.get().getRole())
-                        .build();
+            return toInfoResponse(user.get());
+        }
+        throw new UsernameNotFoundException("User not found");
+    }
+
+    public Map<Integer, InfoResponse> getUserInfoByIds(Collection<Integer> ids) throws BatchSizeExceededException {
+        Set<Integer> distinctIds = new LinkedHashSet<>(ids);
+        if(distinctIds.size() > userInfoProperties.getBatchMaxSize()){
+            throw new BatchSizeExceededException("At most " + userInfoProperties.getBatchMaxSize() + " ids can be requested at once");
+        }
+        Map<Integer, InfoResponse> infos = new LinkedHashMap<>();
+        if(distinctIds.isEmpty()){
+            return infos;
+        }
+        for (InfoResponse info : userRepository.findInfoByIdIn(distinctIds)) {
+            if(info.getRole() == Role.PATIENT) {
+                info.setServices(null);
             }
+            infos.put(info.getId(), info);
+        }
+        return infos;
+    }
+
+    private InfoResponse toInfoResponse(User user){
+        if(user.getRole().equals(Role.PATIENT)) {
             return InfoResponse.builder()
-                    .id(user.get().getId())
-                    .phone(user.get().getPhone())
-                    .email(user.get().getEmail())
-                    .firstName(user.get().getFirstName())
-                    .lastName(user.get().getLastName())
-                    .services(user.get().getServices())
-                    .role(user.get().getRole())
+                    .id(user.getId())
+                    .phone(user.getPhone())
+                    .email(user.getEmail())
+                    .firstName(user.getFirstName())
+                    .lastName(user.getLastName())
+                    .role(user.getRole())
                     .build();
         }
-        throw new UsernameNotFoundException("User not found");
+        return InfoResponse.builder()
+                .id(user.getId())
+                .phone(user.getPhone())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .services(user.getServices())
+                .role(user.getRole())
+                .build();
+    }
+
+    static boolean isEmailConflict(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(User.EMAIL_INDEX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String currentUserEmail() {
+        String email = tokenContext.getSubject();
+        if (email == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        return email;
     }
 }
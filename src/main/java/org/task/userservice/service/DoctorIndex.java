@@ -0,0 +1,85 @@
+package org.task.userservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.task.userservice.entity.User;
+import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of doctors per medical service. Lists are kept sorted by doctor id
+ * and replaced copy-on-write, so reads never lock or touch the database. Writers use a
+ * {@link ReentrantLock} rather than a monitor so a rebuild does not pin a virtual thread.
+ * The index is per instance: {@link #add} only sees registrations and imports handled here,
+ * so it is also rebuilt every {@code doctor-index.refresh-interval} to pick up doctors
+ * added on other instances or changed directly in the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorIndex {
+    private final UserRepository userRepository;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Map<MedicalService, List<UserNameSurname>> index = Collections.emptyMap();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${doctor-index.refresh-interval:PT5M}",
+            fixedDelayString = "${doctor-index.refresh-interval:PT5M}")
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            EnumMap<MedicalService, List<UserNameSurname>> rebuilt = new EnumMap<>(MedicalService.class);
+            for (MedicalService service : MedicalService.values()) {
+                List<UserNameSurname> doctors = new ArrayList<>(userRepository.findUsersByService(service).orElse(List.of()));
+                doctors.sort(Comparator.comparingInt(UserNameSurname::doctorId));
+                rebuilt.put(service, List.copyOf(doctors));
+            }
+            index = Collections.unmodifiableMap(rebuilt);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void add(User doctor) {
+        if (doctor.getServices() == null || doctor.getServices().isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            EnumMap<MedicalService, List<UserNameSurname>> updated = new EnumMap<>(MedicalService.class);
+            updated.putAll(index);
+            UserNameSurname entry = new UserNameSurname(doctor.getId(), doctor.getFirstName(), doctor.getLastName());
+            for (MedicalService service : doctor.getServices()) {
+                List<UserNameSurname> doctors = new ArrayList<>(updated.getOrDefault(service, List.of()));
+                if (doctors.stream().noneMatch(d -> d.doctorId() == entry.doctorId())) {
+                    doctors.add(entry);
+                    doctors.sort(Comparator.comparingInt(UserNameSurname::doctorId));
+                }
+                updated.put(service, List.copyOf(doctors));
+            }
+            index = Collections.unmodifiableMap(updated);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Optional<List<UserNameSurname>> findDoctors(MedicalService service) {
+        if (service == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(index.get(service));
+    }
+}
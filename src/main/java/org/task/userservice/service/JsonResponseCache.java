@@ -0,0 +1,67 @@
+package org.task.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.task.userservice.config.ReferenceDataProperties;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Serves reference data that does not change while the process runs from JSON bytes serialized once,
+ * with a strong ETag so conditional GETs are answered with 304 by Spring MVC.
+ */
+@Service
+@RequiredArgsConstructor
+public class JsonResponseCache {
+    private final ObjectMapper objectMapper;
+    private final ReferenceDataProperties properties;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ResponseEntity<byte[]> respond(String key, Supplier<?> body) {
+        Entry entry = entries.computeIfAbsent(key, k -> serialize(body.get()));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.maxAge(properties.getMaxAge()).cachePublic())
+                .body(entry.bytes());
+    }
+
+    /**
+     * Drops the precomputed body for the key so the next request serializes it again.
+     */
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    private Entry serialize(Object body) {
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+            return new Entry(bytes, etag(bytes));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(byte[] bytes, String etag) {
+    }
+}
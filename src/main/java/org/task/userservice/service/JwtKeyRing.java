@@ -0,0 +1,224 @@
+package org.task.userservice.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.springframework.stereotype.Component;
+import org.task.userservice.config.JwtProperties;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signing keys for issued tokens, addressed by {@code kid}. One key signs; the public halves of
+ * all configured keys verify and are published as a JWK set, so other services can check tokens
+ * without calling this one. Keys come from {@code jwt.signing.keys}, so every instance holds the
+ * same ring; rotation is a configuration change followed by {@link #reload()}. Tokens without a {@code kid} are accepted
+ * with the configured legacy HS256 secret while {@code jwt.signing.accept-legacy-hs256} is on,
+ * for at most {@code jwt.signing.legacy-max-age} after they were issued.
+ */
+@Component
+public class JwtKeyRing {
+    private static final Map<String, SignatureAlgorithm> ALGORITHMS = Map.of(
+            Jwts.SIG.ES256.getId(), Jwts.SIG.ES256,
+            Jwts.SIG.RS256.getId(), Jwts.SIG.RS256);
+
+    private final JwtProperties jwtProperties;
+    private final SignatureAlgorithm algorithm;
+    private final SecretKey legacyKey;
+    private final Duration legacyMaxAge;
+    private volatile Ring ring;
+
+    public JwtKeyRing(JwtProperties jwtProperties) {
+        JwtProperties.Signing properties = jwtProperties.getSigning();
+        this.jwtProperties = jwtProperties;
+        this.algorithm = algorithm(properties.getAlgorithm());
+        this.legacyKey = properties.isAcceptLegacyHs256() ? legacyKey(properties) : null;
+        this.legacyMaxAge = properties.getLegacyMaxAge();
+        if (properties.getKeys().isEmpty()) {
+            if (!properties.isGenerateEphemeralKey()) {
+                throw new IllegalStateException("No jwt.signing.keys configured; set jwt.signing.generate-ephemeral-key=true for local development");
+            }
+            this.ring = Ring.of(generate(), List.of());
+        } else {
+            this.ring = load(properties);
+        }
+    }
+
+    public SigningKey signingKey() {
+        return ring.active();
+    }
+
+    public SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Locator for {@link io.jsonwebtoken.JwtParserBuilder#keyLocator}.
+     */
+    public LocatorAdapter<Key> locator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                return verificationKey(header);
+            }
+        };
+    }
+
+    /**
+     * Public keys currently accepted for verification, as a JWK set document.
+     */
+    public Map<String, Object> jwkSet() {
+        return Map.of("keys", ring.jwks());
+    }
+
+    /**
+     * Rebuilds the ring from the current {@code jwt.signing.keys} and {@code jwt.signing.active-kid}.
+     * The ring is left unchanged when the new configuration is invalid. A generated development key
+     * is kept while no keys are configured. The algorithm and legacy settings apply from startup only.
+     */
+    public void reload() {
+        JwtProperties.Signing properties = jwtProperties.getSigning();
+        if (properties.getKeys().isEmpty()) {
+            if (!properties.isGenerateEphemeralKey()) {
+                throw new IllegalStateException("No jwt.signing.keys configured");
+            }
+            return;
+        }
+        ring = load(properties);
+    }
+
+    /**
+     * Rejects legacy tokens, which have no expiration, once they are older than the configured maximum age.
+     */
+    void checkLegacyAge(Jws<Claims> jws) {
+        if (jws.getHeader().getKeyId() != null) {
+            return;
+        }
+        Date issuedAt = jws.getPayload().getIssuedAt();
+        if (issuedAt == null || issuedAt.toInstant().plus(legacyMaxAge).isBefore(Instant.now())) {
+            throw new ExpiredJwtException(jws.getHeader(), jws.getPayload(), "Legacy token is older than jwt.signing.legacy-max-age");
+        }
+    }
+
+    private Key verificationKey(Header header) {
+        String kid = header instanceof JwsHeader jws ? jws.getKeyId() : null;
+        if (kid == null) {
+            if (legacyKey != null && Jwts.SIG.HS256.getId().equals(header.getAlgorithm())) {
+                return legacyKey;
+            }
+            throw new UnsupportedJwtException("Token has no key id");
+        }
+        PublicKey key = ring.verificationKeys().get(kid);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    private static SignatureAlgorithm algorithm(String id) {
+        SignatureAlgorithm algorithm = id != null ? ALGORITHMS.get(id) : null;
+        if (algorithm == null) {
+            throw new IllegalStateException("Unsupported jwt.signing.algorithm '" + id + "'; use ES256 or RS256");
+        }
+        return algorithm;
+    }
+
+    private static SecretKey legacyKey(JwtProperties.Signing properties) {
+        if (properties.getLegacySecret() == null || properties.getLegacySecret().isBlank()) {
+            throw new IllegalStateException("jwt.signing.accept-legacy-hs256 requires jwt.signing.legacy-secret");
+        }
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getLegacySecret()));
+    }
+
+    private SigningKey generate() {
+        KeyPair keyPair = algorithm.keyPair().build();
+        PublicJwk<?> jwk = jwk(keyPair.getPublic(), null);
+        return new SigningKey(jwk.getId(), keyPair.getPrivate(), jwk);
+    }
+
+    private Ring load(JwtProperties.Signing properties) {
+        SigningKey active = null;
+        List<PublicJwk<?>> others = new ArrayList<>();
+        for (JwtProperties.Key key : properties.getKeys()) {
+            PublicJwk<?> jwk = jwk(decodePublic(key.getPublicKey()), key.getKid());
+            boolean canSign = key.getPrivateKey() != null;
+            boolean wanted = properties.getActiveKid() == null ? active == null : properties.getActiveKid().equals(key.getKid());
+            if (canSign && wanted && active == null) {
+                active = new SigningKey(key.getKid(), decodePrivate(key.getPrivateKey()), jwk);
+            } else {
+                others.add(jwk);
+            }
+        }
+        if (active == null) {
+            throw new IllegalStateException("No private key configured for the active jwt.signing key");
+        }
+        return Ring.of(active, others);
+    }
+
+    private PublicJwk<?> jwk(PublicKey key, String kid) {
+        var builder = Jwks.builder().key(key).algorithm(algorithm.getId()).publicKeyUse("sig");
+        return (kid != null ? builder.id(kid) : builder.idFromThumbprint()).build();
+    }
+
+    private PublicKey decodePublic(String base64) {
+        try {
+            return keyFactory().generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(base64)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid jwt.signing public key", e);
+        }
+    }
+
+    private PrivateKey decodePrivate(String base64) {
+        try {
+            return keyFactory().generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(base64)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid jwt.signing private key", e);
+        }
+    }
+
+    private KeyFactory keyFactory() throws GeneralSecurityException {
+        return KeyFactory.getInstance(algorithm.getId().startsWith("ES") ? "EC" : "RSA");
+    }
+
+    public record SigningKey(String kid, PrivateKey privateKey, PublicJwk<?> jwk) {
+    }
+
+    private record Ring(SigningKey active, List<PublicJwk<?>> jwks, Map<String, PublicKey> verificationKeys) {
+        static Ring of(SigningKey active, List<PublicJwk<?>> previous) {
+            List<PublicJwk<?>> jwks = new ArrayList<>();
+            jwks.add(active.jwk());
+            jwks.addAll(previous);
+            Map<String, PublicKey> keys = new LinkedHashMap<>();
+            for (PublicJwk<?> jwk : jwks) {
+                keys.put(jwk.getId(), jwk.toKey());
+            }
+            return new Ring(active, List.copyOf(jwks), Map.copyOf(keys));
+        }
+    }
+}
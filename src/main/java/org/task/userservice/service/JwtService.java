@@ -1,14 +1,17 @@
 package org.task.userservice.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.task.userservice.config.JwtProperties;
 
-import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,7 +19,31 @@ import java.util.function.Function;
 
 @Service
 public class JwtService {
-    private static final String SECRET_KEY = "684F5DEC9EC626A4DC3239FA9DBB61B854FEA8DF5B1060DB22EEA836105AEE6F";
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String SERVICES_CLAIM = "services";
+    /**
+     * Issue time in milliseconds; {@code iat} has whole seconds only, too coarse for revocation cut-offs.
+     */
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iatMillis";
+
+    private final JwtKeyRing keyRing;
+    private final Duration accessTokenTtl;
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final MeterRegistry meterRegistry;
+    private final Timer signTimer;
+    private final Timer verifyTimer;
+
+    public JwtService(JwtKeyRing keyRing, VerifiedTokenCache verifiedTokenCache, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.accessTokenTtl = jwtProperties.getAccessTokenTtl();
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.meterRegistry = meterRegistry;
+        this.signTimer = meterRegistry.timer("jwt.sign");
+        this.verifyTimer = meterRegistry.timer("jwt.verify");
+        this.jwtParser = Jwts.parser().keyLocator(keyRing.locator()).build();
+    }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
@@ -28,34 +55,54 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()));
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        final Date expiration = claims.getExpiration();
+        return username.equals(userDetails.getUsername())
+                && (expiration == null || expiration.after(new Date()));
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        long now = System.currentTimeMillis();
+        return signTimer.record(() -> Jwts
                 .builder()
+                .header().keyId(signingKey.kid()).and()
                 .claims(extraClaims)
                 .subject(userDetails.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .issuedAt(new Date(now))
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .expiration(new Date(now + accessTokenTtl.toMillis()))
+                .signWith(signingKey.privateKey(), keyRing.algorithm())
+                .compact());
     }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Claims extractAllClaims(String token) {
+        return verifiedTokenCache.get(token, this::verifyClaims);
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Signature check and parse, timed only on a verified-token cache miss.
+     */
+    private Claims verifyClaims(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Jws<Claims> jws = jwtParser.parseSignedClaims(token);
+            keyRing.checkLegacyAge(jws);
+            return jws.getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            AuthFailureMetrics.record(meterRegistry, AuthFailureMetrics.SOURCE_TOKEN, e);
+            throw e;
+        } finally {
+            sample.stop(verifyTimer);
+        }
     }
 
 }
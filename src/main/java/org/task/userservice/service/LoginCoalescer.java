@@ -0,0 +1,146 @@
+package org.task.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.task.userservice.config.LoginCacheProperties;
+import org.task.userservice.response.AuthenticationResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Collapses repeated logins with the same credentials into one verification. Concurrent attempts
+ * wait on the in-flight one and share its result or failure; a successful result is then reused
+ * for {@code login-cache.ttl}. Credentials are only held as an HMAC under a key generated at startup,
+ * so neither the map nor the cache contains a password or anything that can be checked offline.
+ * {@link #invalidate} drops a user's cached logins when their tokens are revoked, and a login that
+ * was in flight at that moment is not cached.
+ */
+@Component
+public class LoginCoalescer {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int GENERATION_STRIPES = 64;
+
+    private final SecretKeySpec hmacKey;
+    private final ConcurrentMap<String, CompletableFuture<AuthenticationResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, RecentLogin> recent;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Counter coalesced;
+    private final Counter reused;
+
+    public LoginCoalescer(LoginCacheProperties properties, MeterRegistry meterRegistry) {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.recent = properties.isEnabled()
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getMaximumSize())
+                        .expireAfterWrite(properties.getTtl())
+                        .build()
+                : null;
+        this.coalesced = meterRegistry.counter("auth.login.reused", "reason", "in-flight");
+        this.reused = meterRegistry.counter("auth.login.reused", "reason", "recent");
+    }
+
+    public AuthenticationResponse authenticate(String email, String password, Supplier<AuthenticationResponse> login) {
+        String key = credentialsKey(email, password);
+        if (recent != null) {
+            RecentLogin cached = recent.getIfPresent(key);
+            if (cached != null) {
+                reused.increment();
+                return cached.response();
+            }
+        }
+
+        CompletableFuture<AuthenticationResponse> future = new CompletableFuture<>();
+        CompletableFuture<AuthenticationResponse> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return join(existing);
+        }
+        try {
+            long generation = generations.get(stripe(email));
+            AuthenticationResponse response = login.get();
+            if (recent != null) {
+                remember(key, email, generation, response);
+            }
+            future.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Forgets every cached login of the user. The cache is keyed by credentials, so this scans it;
+     * it runs only on logout and refresh-token reuse.
+     */
+    public void invalidate(String email) {
+        if (recent != null) {
+            generations.incrementAndGet(stripe(email));
+            recent.asMap().values().removeIf(login -> login.email().equals(email));
+        }
+    }
+
+    /**
+     * Caches the result unless the user was invalidated since the login started. The second check
+     * covers an invalidation whose scan ran before the entry was added.
+     */
+    private void remember(String key, String email, long generation, AuthenticationResponse response) {
+        int stripe = stripe(email);
+        if (generations.get(stripe) != generation) {
+            return;
+        }
+        RecentLogin login = new RecentLogin(email, response);
+        recent.put(key, login);
+        if (generations.get(stripe) != generation) {
+            recent.asMap().remove(key, login);
+        }
+    }
+
+    private static int stripe(String email) {
+        return Math.floorMod(String.valueOf(email).hashCode(), GENERATION_STRIPES);
+    }
+
+    private String credentialsKey(String email, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(String.valueOf(email).getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(String.valueOf(password).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record RecentLogin(String email, AuthenticationResponse response) {
+    }
+
+    private static AuthenticationResponse join(CompletableFuture<AuthenticationResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
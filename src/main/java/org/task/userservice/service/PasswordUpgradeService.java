@@ -0,0 +1,25 @@
+package org.task.userservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+import org.task.userservice.repository.UserRepository;
+
+/**
+ * Stores the rehashed password when {@code DaoAuthenticationProvider} finds a stored hash
+ * that uses an outdated encoder or cost after a successful login.
+ */
+@Service
+@RequiredArgsConstructor
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+    private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userProfileCache.invalidateEmail(user.getUsername());
+        return userProfileCache.findByEmail(user.getUsername()).orElseThrow();
+    }
+}
@@ -0,0 +1,117 @@
+package org.task.userservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.task.userservice.config.JwtProperties;
+import org.task.userservice.entity.TokenFamily;
+import org.task.userservice.exceptions.InvalidRefreshTokenException;
+import org.task.userservice.repository.TokenFamilyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque rotating refresh tokens of the form {@code <family id>.<secret>}. Each refresh replaces
+ * the secret. Reusing a replaced secret revokes every family of the user and their access tokens.
+ * Every login starts a family, so revoked and expired ones are purged on a schedule.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final TokenFamilyRepository tokenFamilyRepository;
+    private final TokenRevocations tokenRevocations;
+    private final JwtProperties jwtProperties;
+
+    public String issue(String email) {
+        String secret = newSecret();
+        TokenFamily family = TokenFamily.builder()
+                .id(UUID.randomUUID().toString())
+                .email(email)
+                .tokenHash(hash(secret))
+                .expiresAt(Instant.now().plus(jwtProperties.getRefreshTokenTtl()))
+                .build();
+        tokenFamilyRepository.save(family);
+        return family.getId() + "." + secret;
+    }
+
+    /**
+     * Replaces the presented token with a new one in the same family. Of two concurrent refreshes
+     * with the same token, the version check lets exactly one win.
+     */
+    public RotatedRefreshToken rotate(String refreshToken) throws InvalidRefreshTokenException {
+        TokenFamily family = currentFamily(refreshToken);
+        String secret = newSecret();
+        family.setTokenHash(hash(secret));
+        family.setGeneration(family.getGeneration() + 1);
+        try {
+            tokenFamilyRepository.saveAndFlush(family);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new InvalidRefreshTokenException("Refresh token was already used");
+        }
+        return new RotatedRefreshToken(family.getEmail(), family.getId() + "." + secret);
+    }
+
+    /**
+     * Ends the session of the presented token: its family and every access token of the user.
+     */
+    public void revoke(String refreshToken) throws InvalidRefreshTokenException {
+        TokenFamily family = currentFamily(refreshToken);
+        tokenFamilyRepository.revokeById(family.getId());
+        tokenRevocations.revokeAll(family.getEmail());
+    }
+
+    /**
+     * Deletes families that can no longer refresh. Runs on every instance; the delete is idempotent.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-purge-interval:PT1H}")
+    public int purgeEnded() {
+        return tokenFamilyRepository.deleteEnded(Instant.now());
+    }
+
+    private TokenFamily currentFamily(String refreshToken) throws InvalidRefreshTokenException {
+        int separator = refreshToken == null ? -1 : refreshToken.indexOf('.');
+        if (separator < 0) {
+            throw new InvalidRefreshTokenException("Malformed refresh token");
+        }
+        TokenFamily family = tokenFamilyRepository.findById(refreshToken.substring(0, separator))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+        if (family.isRevoked() || family.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException("Refresh token is no longer valid");
+        }
+        byte[] presented = hash(refreshToken.substring(separator + 1)).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(presented, family.getTokenHash().getBytes(StandardCharsets.US_ASCII))) {
+            tokenFamilyRepository.revokeAllByEmail(family.getEmail());
+            tokenRevocations.revokeAll(family.getEmail());
+            throw new InvalidRefreshTokenException("Refresh token reuse detected, all sessions revoked");
+        }
+        return family;
+    }
+
+    private static String newSecret() {
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+    }
+
+    private static String hash(String secret) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(secret.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record RotatedRefreshToken(String email, String refreshToken) {
+    }
+}
@@ -0,0 +1,62 @@
+package org.task.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import org.springframework.stereotype.Component;
+import org.task.userservice.config.JwtProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Per-user "revoked before" instants checked by the JWT filter without a database hit. An access
+ * token issued at or before its user's instant is rejected. Entries only need to outlive the
+ * longest-lived token still accepted: the access-token TTL, or the legacy maximum age while
+ * legacy HS256 tokens, which have no expiration, are accepted. The map is kept per instance.
+ */
+@Component
+public class TokenRevocations {
+    private final Cache<String, Instant> revokedBefore;
+    private final LoginCoalescer loginCoalescer;
+
+    public TokenRevocations(JwtProperties jwtProperties, LoginCoalescer loginCoalescer) {
+        this.loginCoalescer = loginCoalescer;
+        this.revokedBefore = Caffeine.newBuilder()
+                .expireAfterWrite(retention(jwtProperties))
+                .build();
+    }
+
+    /**
+     * Rejects every access token of the user issued up to now, including ones held by the login cache.
+     */
+    public void revokeAll(String email) {
+        Instant cutoff = Instant.now();
+        revokedBefore.asMap().merge(email, cutoff, (current, next) -> current.isAfter(next) ? current : next);
+        loginCoalescer.invalidate(email);
+    }
+
+    private static Duration retention(JwtProperties jwtProperties) {
+        Duration accessTokenTtl = jwtProperties.getAccessTokenTtl();
+        JwtProperties.Signing signing = jwtProperties.getSigning();
+        if (signing.isAcceptLegacyHs256() && signing.getLegacyMaxAge().compareTo(accessTokenTtl) > 0) {
+            return signing.getLegacyMaxAge();
+        }
+        return accessTokenTtl;
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Instant cutoff = revokedBefore.getIfPresent(claims.getSubject());
+        if (cutoff == null) {
+            return false;
+        }
+        Number issuedAtMillis = claims.get(JwtService.ISSUED_AT_MILLIS_CLAIM, Number.class);
+        if (issuedAtMillis != null) {
+            return issuedAtMillis.longValue() <= cutoff.toEpochMilli();
+        }
+        // Tokens from before the millisecond claim only have a whole-second iat.
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.toInstant().isBefore(cutoff);
+    }
+}
@@ -0,0 +1,238 @@
+package org.task.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.task.userservice.config.PasswordEncoders;
+import org.task.userservice.config.PasswordHashingProperties;
+import org.task.userservice.config.UserImportProperties;
+import org.task.userservice.entity.User;
+import org.task.userservice.enums.Role;
+import org.task.userservice.repository.UserRepository;
+import org.task.userservice.request.RegisterRequest;
+import org.task.userservice.response.ImportResponse;
+import org.task.userservice.response.ImportRowError;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Imports users from NDJSON ({@link RegisterRequest} per line) in chunks. Passwords of a
+ * chunk are hashed in parallel on the shared import hashing pool and the chunk is inserted in
+ * one transaction using JDBC batching. Invalid rows and rows whose password cannot be hashed are
+ * reported and skipped; a chunk that fails on insert is retried row by row so one bad row never
+ * aborts the import. The failed count is exact, but only the first
+ * {@code user-import.max-listed-errors} errors are listed in the response.
+ */
+@Service
+public class UserImportService {
+    private final UserRepository userRepository;
+    private final DoctorIndex doctorIndex;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final UserImportProperties properties;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService hashingExecutor;
+
+    public UserImportService(UserRepository userRepository,
+                             DoctorIndex doctorIndex,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             UserImportProperties properties,
+                             PasswordHashingProperties passwordHashingProperties,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("userImportHashingExecutor") ExecutorService hashingExecutor) {
+        this.userRepository = userRepository;
+        this.doctorIndex = doctorIndex;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.passwordEncoder = PasswordEncoders.create(passwordHashingProperties);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    public ImportResponse importUsers(InputStream ndjson) throws IOException {
+        ImportErrors errors = new ImportErrors(properties.getMaxListedErrors());
+        Set<String> seenEmails = new HashSet<>();
+        int imported = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            List<Row> chunk = new ArrayList<>(properties.getBatchSize());
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Row row = parse(lineNumber, line, seenEmails, errors);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == properties.getBatchSize()) {
+                    imported += importChunk(chunk, errors);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                imported += importChunk(chunk, errors);
+            }
+        }
+        return ImportResponse.builder()
+                .imported(imported)
+                .failed(errors.count)
+                .errors(errors.listed)
+                .build();
+    }
+
+    private Row parse(int lineNumber, String line, Set<String> seenEmails, ImportErrors errors) {
+        RegisterRequest request;
+        try {
+            request = objectMapper.readValue(line, RegisterRequest.class);
+        } catch (JsonProcessingException e) {
+            errors.add(new ImportRowError(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage()));
+            return null;
+        }
+        String problem = validate(request);
+        if (problem == null && !seenEmails.add(request.getEmail())) {
+            problem = "Duplicate email in import";
+        }
+        if (problem != null) {
+            errors.add(new ImportRowError(lineNumber, request.getEmail(), problem));
+            return null;
+        }
+        return new Row(lineNumber, request);
+    }
+
+    private static String validate(RegisterRequest request) {
+        if (request.getEmail() == null || request.getEmail().isBlank()) {
+            return "Email is required";
+        }
+        if (request.getPassword() == null || request.getPassword().isEmpty()) {
+            return "Password is required";
+        }
+        if (request.getRole() == null) {
+            return "Role is required";
+        }
+        if (request.getRole() == Role.ADMIN) {
+            return "Admin accounts cannot be imported";
+        }
+        return null;
+    }
+
+    private int importChunk(List<Row> chunk, ImportErrors errors) {
+        Set<String> existing = new HashSet<>(userRepository.findExistingEmails(
+                chunk.stream().map(row -> row.request().getEmail()).toList()));
+        List<Row> fresh = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existing.contains(row.request().getEmail())) {
+                errors.add(new ImportRowError(row.line(), row.request().getEmail(), "User with this email already exists"));
+            } else {
+                fresh.add(row);
+            }
+        }
+
+        List<CompletableFuture<User>> hashing = fresh.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> toUser(row.request()), hashingExecutor))
+                .toList();
+        List<Row> hashedRows = new ArrayList<>(fresh.size());
+        List<User> users = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            Row row = fresh.get(i);
+            try {
+                users.add(hashing.get(i).join());
+                hashedRows.add(row);
+            } catch (CompletionException e) {
+                errors.add(new ImportRowError(row.line(), row.request().getEmail(), "Password could not be hashed"));
+            }
+        }
+
+        List<User> saved;
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAllAndFlush(users));
+            saved = users;
+        } catch (DataIntegrityViolationException e) {
+            entityManager.clear();
+            saved = insertOneByOne(hashedRows, users, errors);
+        } finally {
+            entityManager.clear();
+        }
+        for (User user : saved) {
+            if (Role.DOCTOR.equals(user.getRole())) {
+                doctorIndex.add(user);
+            }
+        }
+        return saved.size();
+    }
+
+    private List<User> insertOneByOne(List<Row> rows, List<User> users, ImportErrors errors) {
+        List<User> saved = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            User user = users.get(i);
+            user.setId(0);
+            // the rolled-back batch left a persistent collection bound to the old row
+            user.setServices(user.getServices() == null ? null : new ArrayList<>(user.getServices()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> userRepository.saveAndFlush(user));
+                saved.add(user);
+            } catch (DataIntegrityViolationException e) {
+                String message = AuthenticationService.isEmailConflict(e)
+                        ? "User with this email already exists"
+                        : "Row violates a database constraint";
+                errors.add(new ImportRowError(rows.get(i).line(), user.getEmail(), message));
+            } finally {
+                entityManager.clear();
+            }
+        }
+        return saved;
+    }
+
+    private User toUser(RegisterRequest request) {
+        return User.builder()
+                .firstName(request.getFirstname())
+                .lastName(request.getLastname())
+                .email(request.getEmail())
+                .password(passwordEncoder.encode(request.getPassword()))
+                .role(request.getRole())
+                .phone(request.getPhone())
+                .services(request.getServices())
+                .build();
+    }
+
+    private record Row(int line, RegisterRequest request) {
+    }
+
+    private static final class ImportErrors {
+        private final int maxListed;
+        private final List<ImportRowError> listed = new ArrayList<>();
+        private int count;
+
+        ImportErrors(int maxListed) {
+            this.maxListed = maxListed;
+        }
+
+        void add(ImportRowError error) {
+            count++;
+            if (listed.size() < maxListed) {
+                listed.add(error);
+            }
+        }
+    }
+}
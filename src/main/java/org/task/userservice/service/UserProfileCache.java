@@ -0,0 +1,154 @@
+package org.task.userservice.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.task.userservice.config.UserCacheProperties;
+import org.task.userservice.entity.User;
+import org.task.userservice.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of detached {@link User} copies, addressable by email and by id.
+ * Missing users are not cached. A miss is loaded on the calling thread, inside its transaction
+ * if it has one, so a load never needs a second pool connection. Only an incomplete future is
+ * inserted under the cache's lock; concurrent callers for the same key wait on it.
+ */
+@Component
+public class UserProfileCache implements MeterBinder {
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncCache<String, User> byEmail;
+    private final AsyncCache<Integer, User> byId;
+
+    public UserProfileCache(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            UserCacheProperties properties) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(getOrLoad(byEmail, email, this::loadByEmail));
+    }
+
+    public Optional<User> findById(int id) {
+        return Optional.ofNullable(getOrLoad(byId, id, this::loadById));
+    }
+
+    public void invalidate(User user) {
+        byEmail.synchronous().invalidate(user.getEmail());
+        byId.synchronous().invalidate(user.getId());
+    }
+
+    public void invalidateEmail(String email) {
+        User cached = byEmail.synchronous().getIfPresent(email);
+        byEmail.synchronous().invalidate(email);
+        if (cached != null) {
+            byId.synchronous().invalidate(cached.getId());
+        }
+    }
+
+    public CacheStats emailStats() {
+        return byEmail.synchronous().stats();
+    }
+
+    public CacheStats idStats() {
+        return byId.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byEmail, "users.by-email");
+        CaffeineCacheMetrics.monitor(registry, byId, "users.by-id");
+    }
+
+    private User loadByEmail(String email) {
+        User user = transactionTemplate.execute(status -> userRepository.findWithServicesByEmail(email)
+                .map(UserProfileCache::detach)
+                .orElse(null));
+        if (user != null) {
+            byId.put(user.getId(), CompletableFuture.completedFuture(user));
+        }
+        return user;
+    }
+
+    private User loadById(Integer id) {
+        User user = transactionTemplate.execute(status -> userRepository.findWithServicesById(id)
+                .map(UserProfileCache::detach)
+                .orElse(null));
+        if (user != null) {
+            byEmail.put(user.getEmail(), CompletableFuture.completedFuture(user));
+        }
+        return user;
+    }
+
+    private static <K> User getOrLoad(AsyncCache<K, User> cache, K key, Function<K, User> loader) {
+        CompletableFuture<User> pending = new CompletableFuture<>();
+        CompletableFuture<User> future = cache.get(key, (k, executor) -> pending);
+        if (future != pending) {
+            return join(future);
+        }
+        User user;
+        try {
+            user = loader.apply(key);
+        } catch (RuntimeException e) {
+            cache.asMap().remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        if (user == null) {
+            // Caffeine drops null results asynchronously; remove eagerly so a miss is never served from cache.
+            cache.asMap().remove(key, pending);
+        }
+        pending.complete(user);
+        return user;
+    }
+
+    private static User join(CompletableFuture<User> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static User detach(User user) {
+        return User.builder()
+                .id(user.getId())
+                .password(user.getPassword())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .role(user.getRole())
+                .services(user.getServices() != null ? List.copyOf(user.getServices()) : null)
+                .version(user.getVersion())
+                .build();
+    }
+}
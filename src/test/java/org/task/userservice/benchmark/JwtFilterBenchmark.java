@@ -0,0 +1,90 @@
+package org.task.userservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.task.userservice.config.JwtAuthenticationFilter;
+import org.task.userservice.config.LoginCacheProperties;
+import org.task.userservice.config.JwtProperties;
+import org.task.userservice.config.TestJwtProperties;
+import org.task.userservice.config.TokenContext;
+import org.task.userservice.entity.User;
+import org.task.userservice.enums.Role;
+import org.task.userservice.service.JwtKeyRing;
+import org.task.userservice.service.JwtService;
+import org.task.userservice.service.LoginCoalescer;
+import org.task.userservice.service.TokenRevocations;
+import org.task.userservice.service.VerifiedTokenCache;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full {@link JwtAuthenticationFilter} pass for a request with a bearer token, against an
+ * in-memory {@link UserDetailsService}. {@code claimsTrusted} skips the user lookup and
+ * {@code tokenCache} toggles the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean claimsTrusted;
+
+    @Param({"false", "true"})
+    public boolean tokenCache;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = TestJwtProperties.withEphemeralKey();
+        properties.setClaimsTrusted(claimsTrusted);
+        properties.getCache().setEnabled(tokenCache);
+        JwtService jwtService = new JwtService(new JwtKeyRing(properties), new VerifiedTokenCache(properties), properties, new SimpleMeterRegistry());
+
+        User user = User.builder().id(1).email("testUser@mail.com").role(Role.DOCTOR).build();
+        Map<String, UserDetails> users = Map.of(user.getEmail(), user);
+        UserDetailsService userDetailsService = username -> {
+            UserDetails details = users.get(username);
+            if (details == null) {
+                throw new UsernameNotFoundException("User not found");
+            }
+            return details;
+        };
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, properties, new TokenContext(), new TokenRevocations(properties, new LoginCoalescer(new LoginCacheProperties(), new SimpleMeterRegistry())), new SimpleMeterRegistry());
+        Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put(JwtService.ROLE_CLAIM, Role.DOCTOR);
+        extraClaims.put(JwtService.USER_ID_CLAIM, user.getId());
+        authorization = "Bearer " + jwtService.generateToken(extraClaims, user);
+    }
+
+    @Benchmark
+    public Object doFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/");
+        request.addHeader("Authorization", authorization);
+        FilterChain chain = new MockFilterChain();
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.task.userservice.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.task.userservice.entity.User;
+import org.task.userservice.enums.Role;
+import org.task.userservice.config.JwtProperties;
+import org.task.userservice.config.TestJwtProperties;
+import org.task.userservice.service.JwtKeyRing;
+import org.task.userservice.service.JwtService;
+import org.task.userservice.service.VerifiedTokenCache;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-token sign and parse cost of {@link JwtService}, which signs with the ES256 key ring.
+ * The {@code legacy*} benchmarks use HS256 and rebuild the signing key and parser on every
+ * call, as the service did before the key material and parser were cached, and parse their own
+ * HS256 token. Both services share one key ring. {@code parseCached} hits the verified-token cache;
+ * {@code extractUsername} and {@code isTokenValid} go through the uncached parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+    private static final String SECRET_KEY = "684F5DEC9EC626A4DC3239FA9DBB61B854FEA8DF5B1060DB22EEA836105AEE6F";
+
+    private JwtService jwtService;
+    private JwtService cachingJwtService;
+    private User user;
+    private Map<String, Object> extraClaims;
+    private String token;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        JwtProperties uncached = TestJwtProperties.withEphemeralKey();
+        uncached.getCache().setEnabled(false);
+        JwtKeyRing keyRing = new JwtKeyRing(uncached);
+        jwtService = new JwtService(keyRing, new VerifiedTokenCache(uncached), uncached, new SimpleMeterRegistry());
+        cachingJwtService = new JwtService(keyRing, new VerifiedTokenCache(new JwtProperties()), new JwtProperties(), new SimpleMeterRegistry());
+        user = User.builder().id(1).email("testUser@mail.com").role(Role.DOCTOR).build();
+        extraClaims = new HashMap<>();
+        extraClaims.put(JwtService.ROLE_CLAIM, Role.DOCTOR);
+        token = jwtService.generateToken(extraClaims, user);
+        legacyToken = legacySign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(extraClaims, user);
+    }
+
+    @Benchmark
+    public Claims parse() {
+        return jwtService.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseCached() {
+        return cachingJwtService.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public String legacySign() {
+        return Jwts.builder()
+                .claims(extraClaims)
+                .subject(user.getUsername())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .signWith(legacySignInKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims legacyParse() {
+        return Jwts.parser().verifyWith(legacySignInKey())
+                .build()
+                .parseSignedClaims(legacyToken)
+                .getPayload();
+    }
+
+    private static SecretKey legacySignInKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    }
+}
@@ -0,0 +1,82 @@
+package org.task.userservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.task.userservice.config.LoginCacheProperties;
+import org.task.userservice.config.TokenContext;
+import org.task.userservice.config.UserInfoProperties;
+import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.exceptions.UnknownMedicalServiceException;
+import org.task.userservice.repository.UserRepository;
+import org.task.userservice.service.AuthenticationService;
+import org.task.userservice.service.DoctorIndex;
+import org.task.userservice.service.JwtService;
+import org.task.userservice.service.LoginCoalescer;
+import org.task.userservice.service.RefreshTokenService;
+import org.task.userservice.service.UserProfileCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost of resolving the {@code medicalService} request parameter. {@code legacyParse} is the
+ * linear {@code equalsIgnoreCase} scan that {@link MedicalService#parse} replaced with a lookup
+ * table; {@code getDoctorsForService} adds the doctor index lookup behind the endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MedicalServiceBenchmark {
+
+    @Param({"General checkup", "Dermatology consultation", "dermatology_consultation"})
+    public String medicalService;
+
+    private AuthenticationService authenticationService;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        List<UserNameSurname> doctors = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            doctors.add(new UserNameSurname(i, "Doctor" + i, "Surname" + i));
+        }
+        when(userRepository.findUsersByService(any())).thenReturn(Optional.of(doctors));
+        DoctorIndex doctorIndex = new DoctorIndex(userRepository);
+        doctorIndex.rebuild();
+        authenticationService = new AuthenticationService(userRepository, mock(PasswordEncoder.class), mock(JwtService.class),
+                mock(AuthenticationManager.class), mock(TokenContext.class), mock(UserProfileCache.class), doctorIndex,
+                new UserInfoProperties(), new LoginCoalescer(new LoginCacheProperties(), new SimpleMeterRegistry()), mock(RefreshTokenService.class));
+    }
+
+    @Benchmark
+    public MedicalService legacyParse() {
+        for (MedicalService service : MedicalService.values()) {
+            if (service.getValue().equalsIgnoreCase(medicalService)) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Optional<MedicalService> parse() {
+        return MedicalService.parse(medicalService);
+    }
+
+    @Benchmark
+    public List<UserNameSurname> getDoctorsForService() throws UnknownMedicalServiceException {
+        return authenticationService.getDoctorsForService(medicalService);
+    }
+}
@@ -0,0 +1,65 @@
+package org.task.userservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.task.userservice.config.PasswordEncoders;
+import org.task.userservice.config.PasswordHashingProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-hash latency for each supported encoder and parameter set, used to pick the
+ * {@code password-hashing.*} values against the login latency budget. Parameters are
+ * encoded as {@code bcrypt:<strength>}, {@code argon2:<memoryKiB>:<iterations>} and
+ * {@code pbkdf2:<iterations>}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({
+            "bcrypt:10", "bcrypt:12",
+            "argon2:16384:2", "argon2:65536:3",
+            "pbkdf2:310000", "pbkdf2:600000"
+    })
+    public String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        String[] spec = encoder.split(":");
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        passwordEncoder = switch (spec[0]) {
+            case PasswordEncoders.BCRYPT -> new BCryptPasswordEncoder(Integer.parseInt(spec[1]));
+            case PasswordEncoders.ARGON2 -> {
+                properties.getArgon2().setMemory(Integer.parseInt(spec[1]));
+                properties.getArgon2().setIterations(Integer.parseInt(spec[2]));
+                yield PasswordEncoders.argon2(properties.getArgon2());
+            }
+            case PasswordEncoders.PBKDF2 -> {
+                properties.getPbkdf2().setIterations(Integer.parseInt(spec[1]));
+                yield PasswordEncoders.pbkdf2(properties.getPbkdf2());
+            }
+            default -> throw new IllegalArgumentException(encoder);
+        };
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,81 @@
+package org.task.userservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.task.userservice.config.CompactWireFormat;
+import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.enums.Role;
+import org.task.userservice.response.InfoResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization cost of the user endpoints' response bodies: a single
+ * {@link InfoResponse}, a list of them as returned by the batch endpoint, and a doctors list.
+ * {@code format=cbor} uses the positional {@code application/cbor} encoding from
+ * {@link CompactWireFormat}. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private InfoResponse info;
+    private List<InfoResponse> infos;
+    private List<UserNameSurname> doctors;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = "cbor".equals(format) ? CompactWireFormat.mapper() : new ObjectMapper();
+        info = info(1);
+        infos = new ArrayList<>();
+        doctors = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            infos.add(info(i));
+            doctors.add(new UserNameSurname(i, "Doctor" + i, "Surname" + i));
+        }
+        System.out.printf("%n%s payload bytes: infoResponse=%d infoResponseList=%d doctorList=%d%n", format,
+                infoResponse().length, infoResponseList().length, doctorList().length);
+    }
+
+    @Benchmark
+    public byte[] infoResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(info);
+    }
+
+    @Benchmark
+    public byte[] infoResponseList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(infos);
+    }
+
+    @Benchmark
+    public byte[] doctorList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(doctors);
+    }
+
+    private static InfoResponse info(int id) {
+        return InfoResponse.builder()
+                .id(id)
+                .firstName("Janez")
+                .lastName("Kranjski")
+                .email("doctor" + id + "@mail.com")
+                .phone("1234567890")
+                .role(Role.DOCTOR)
+                .services(List.of(MedicalService.GENERAL_CHECKUP, MedicalService.DENTAL_CLEANING))
+                .build();
+    }
+}
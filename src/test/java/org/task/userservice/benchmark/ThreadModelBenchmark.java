@@ -0,0 +1,92 @@
+package org.task.userservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Synthetic model of platform versus virtual request threads; it runs no Tomcat, Hikari or
+ * application code. For the real {@code virtual-threads} profile use {@code UserServiceLoadTest}
+ * with {@code -Dspring.profiles.active=virtual-threads}. Each simulated request holds one
+ * of {@code poolSize} connections (a stand-in for Hikari) for {@code dbLatencyMillis};
+ * every {@code loginEvery}-th request additionally runs a BCrypt verification ({@code 0}
+ * disables logins).
+ * The platform executor is capped at Tomcat's default of 200 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@OperationsPerInvocation(ThreadModelBenchmark.REQUESTS)
+public class ThreadModelBenchmark {
+    static final int REQUESTS = 2_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threadModel;
+
+    @Param({"20", "400"})
+    public int poolSize;
+
+    @Param({"10"})
+    public int dbLatencyMillis;
+
+    @Param({"0", "50"})
+    public int loginEvery;
+
+    private ExecutorService executor;
+    private Semaphore connectionPool;
+    private BCryptPasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(threadModel)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        connectionPool = new Semaphore(poolSize, true);
+        passwordEncoder = new BCryptPasswordEncoder();
+        hash = passwordEncoder.encode("password");
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int requests() throws Exception {
+        List<Future<Boolean>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            boolean login = loginEvery > 0 && i % loginEvery == 0;
+            responses.add(executor.submit(() -> handle(login)));
+        }
+        int ok = 0;
+        for (Future<Boolean> response : responses) {
+            if (response.get()) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+
+    private boolean handle(boolean login) throws InterruptedException {
+        boolean matches = !login || passwordEncoder.matches("password", hash);
+        connectionPool.acquire();
+        try {
+            Thread.sleep(dbLatencyMillis);
+        } finally {
+            connectionPool.release();
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,50 @@
+package org.task.userservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.enums.Role;
+import org.task.userservice.response.InfoResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactWireFormatTest {
+    private final ObjectMapper cbor = CompactWireFormat.mapper();
+
+    @Test
+    public void testInfoResponseIsPositionalWithEnumOrdinals() throws Exception {
+        InfoResponse info = InfoResponse.builder()
+                .id(1)
+                .firstName("Janez")
+                .lastName("Kranjski")
+                .email("testUser@mail.com")
+                .phone("555-666-777")
+                .role(Role.DOCTOR)
+                .services(List.of(MedicalService.DENTAL_CLEANING))
+                .build();
+
+        byte[] encoded = cbor.writeValueAsBytes(info);
+        JsonNode tree = cbor.readTree(encoded);
+
+        assertTrue(tree.isArray());
+        assertEquals(1, tree.get(0).asInt());
+        assertEquals(Role.DOCTOR.ordinal(), tree.get(5).asInt());
+        assertEquals(MedicalService.DENTAL_CLEANING.ordinal(), tree.get(6).get(0).asInt());
+        assertEquals(info, cbor.readValue(encoded, InfoResponse.class));
+        assertTrue(encoded.length < new ObjectMapper().writeValueAsBytes(info).length / 2);
+    }
+
+    @Test
+    public void testDoctorRoundTrip() throws Exception {
+        UserNameSurname doctor = new UserNameSurname(7, "Janez", "Kranjski");
+
+        byte[] encoded = cbor.writeValueAsBytes(doctor);
+
+        assertTrue(cbor.readTree(encoded).isArray());
+        assertEquals(doctor, cbor.readValue(encoded, UserNameSurname.class));
+    }
+}
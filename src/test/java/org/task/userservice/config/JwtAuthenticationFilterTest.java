@@ -0,0 +1,114 @@
+package org.task.userservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.task.userservice.entity.User;
+import org.task.userservice.enums.Role;
+import org.task.userservice.service.AuthFailureMetrics;
+import org.task.userservice.service.JwtKeyRing;
+import org.task.userservice.service.JwtService;
+import org.task.userservice.service.LoginCoalescer;
+import org.task.userservice.service.TokenRevocations;
+import org.task.userservice.service.VerifiedTokenCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtAuthenticationFilterTest {
+
+    private static final String EMAIL = "testUser@mail.com";
+
+    private final User user = User.builder().id(7).email(EMAIL).role(Role.DOCTOR).build();
+    private final AtomicInteger userLookups = new AtomicInteger();
+    private JwtProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        properties = TestJwtProperties.withEphemeralKey();
+        properties.setClaimsTrusted(true);
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(new JwtKeyRing(properties), new VerifiedTokenCache(properties), properties, meterRegistry);
+        filter = filter();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testTrustedClaimsAuthenticateWithoutUserLookup() throws Exception {
+        String token = jwtService.generateToken(Map.of(JwtService.ROLE_CLAIM, Role.DOCTOR, JwtService.USER_ID_CLAIM, 7), user);
+
+        MockFilterChain chain = doFilter(token);
+
+        assertNotNull(chain.getRequest());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(new JwtPrincipal(EMAIL, Role.DOCTOR, 7), authentication.getPrincipal());
+        assertEquals(List.of(Role.DOCTOR.name()), authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertEquals(0, userLookups.get());
+    }
+
+    @Test
+    public void testUntrustedClaimsLoadTheUser() throws Exception {
+        properties.setClaimsTrusted(false);
+        filter = filter();
+        String token = jwtService.generateToken(Map.of(JwtService.ROLE_CLAIM, Role.DOCTOR, JwtService.USER_ID_CLAIM, 7), user);
+
+        doFilter(token);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertSame(user, authentication.getPrincipal());
+        assertEquals(1, userLookups.get());
+    }
+
+    @Test
+    public void testUnknownRoleClaimLeavesRequestUnauthenticated() throws Exception {
+        String token = jwtService.generateToken(Map.of(JwtService.ROLE_CLAIM, "NURSE"), user);
+
+        MockFilterChain chain = doFilter(token);
+
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, meterRegistry.get(AuthFailureMetrics.AUTH_FAILURES)
+                .tag("source", AuthFailureMetrics.SOURCE_TOKEN)
+                .tag("cause", "IncorrectClaimException")
+                .counter().count());
+    }
+
+    private JwtAuthenticationFilter filter() {
+        UserDetailsService userDetailsService = username -> {
+            userLookups.incrementAndGet();
+            if (!EMAIL.equals(username)) {
+                throw new UsernameNotFoundException("User not found");
+            }
+            return user;
+        };
+        return new JwtAuthenticationFilter(jwtService, userDetailsService, properties, new TokenContext(),
+                new TokenRevocations(properties, new LoginCoalescer(new LoginCacheProperties(), meterRegistry)), meterRegistry);
+    }
+
+    private MockFilterChain doFilter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+}
@@ -0,0 +1,114 @@
+package org.task.userservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordEncodersTest {
+
+    @Test
+    public void testLegacyBcryptHashMatchesAndIsUpgraded() {
+        PasswordEncoder encoder = PasswordEncoders.create(new PasswordHashingProperties());
+        String legacyHash = new BCryptPasswordEncoder().encode("doktor");
+
+        assertTrue(encoder.matches("doktor", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    public void testNewHashesArePrefixedWithConfiguredEncoder() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setEncoder(PasswordEncoders.ARGON2);
+        PasswordEncoder encoder = PasswordEncoders.create(properties);
+
+        String hash = encoder.encode("doktor");
+
+        assertTrue(hash.startsWith("{argon2}"));
+        assertTrue(encoder.matches("doktor", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    public void testRaisedBcryptStrengthRequestsUpgrade() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.getBcrypt().setStrength(4);
+        String weakHash = PasswordEncoders.create(properties).encode("doktor");
+
+        properties.getBcrypt().setStrength(6);
+        PasswordEncoder encoder = PasswordEncoders.create(properties);
+
+        assertTrue(encoder.matches("doktor", weakHash));
+        assertTrue(encoder.upgradeEncoding(weakHash));
+    }
+
+    @Test
+    public void testLoweredBcryptStrengthRequestsUpgrade() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.getBcrypt().setStrength(6);
+        String costlyHash = PasswordEncoders.create(properties).encode("doktor");
+
+        properties.getBcrypt().setStrength(4);
+        PasswordEncoder encoder = PasswordEncoders.create(properties);
+
+        assertTrue(encoder.matches("doktor", costlyHash));
+        assertTrue(encoder.upgradeEncoding(costlyHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("doktor")));
+    }
+
+    @Test
+    public void testChangedPbkdf2IterationsRequestUpgrade() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setEncoder(PasswordEncoders.PBKDF2);
+        properties.getPbkdf2().setIterations(1_000);
+        PasswordEncoder original = PasswordEncoders.create(properties);
+        String hash = original.encode("doktor");
+        assertTrue(hash.startsWith("{pbkdf2}1000$"));
+        assertFalse(original.upgradeEncoding(hash));
+
+        properties.getPbkdf2().setIterations(2_000);
+        PasswordEncoder encoder = PasswordEncoders.create(properties);
+
+        assertTrue(encoder.matches("doktor", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertTrue(encoder.upgradeEncoding(hash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("doktor")));
+    }
+
+    @Test
+    public void testUntaggedPbkdf2HashMatchesAndIsUpgraded() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setEncoder(PasswordEncoders.PBKDF2);
+        properties.getPbkdf2().setIterations(1_000);
+        String untagged = "{pbkdf2}" + new Pbkdf2PasswordEncoder("", 16, 1_000,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256).encode("doktor");
+        PasswordEncoder encoder = PasswordEncoders.create(properties);
+
+        assertTrue(encoder.matches("doktor", untagged));
+        assertTrue(encoder.upgradeEncoding(untagged));
+    }
+
+    @Test
+    public void testChangedArgon2MemoryRequestsUpgrade() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setEncoder(PasswordEncoders.ARGON2);
+        properties.getArgon2().setMemory(8192);
+        String hash = PasswordEncoders.create(properties).encode("doktor");
+
+        properties.getArgon2().setMemory(4096);
+        PasswordEncoder encoder = PasswordEncoders.create(properties);
+
+        assertTrue(encoder.matches("doktor", hash));
+        assertTrue(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    public void testUnknownEncoderIsRejected() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setEncoder("md5");
+
+        assertThrows(IllegalArgumentException.class, () -> PasswordEncoders.create(properties));
+    }
+}
@@ -0,0 +1,16 @@
+package org.task.userservice.config;
+
+/**
+ * {@link JwtProperties} for tests that build the JWT services by hand, with a generated signing key.
+ */
+public final class TestJwtProperties {
+
+    private TestJwtProperties() {
+    }
+
+    public static JwtProperties withEphemeralKey() {
+        JwtProperties properties = new JwtProperties();
+        properties.getSigning().setGenerateEphemeralKey(true);
+        return properties;
+    }
+}
@@ -0,0 +1,36 @@
+package org.task.userservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AdminControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testPatientCannotCallAdminEndpoints() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/doctors/index/rebuild").with(user("patient@mail.com").authorities(() -> "PATIENT")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/v1/admin/users/import").contentType("application/x-ndjson").content("")
+                        .with(user("doctor@mail.com").authorities(() -> "DOCTOR")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/actuator/refresh").with(user("patient@mail.com").authorities(() -> "PATIENT")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testAdminCanCallAdminEndpoints() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/doctors/index/rebuild").with(user("admin@mail.com").authorities(() -> "ADMIN")))
+                .andExpect(status().isNoContent());
+    }
+}
@@ -0,0 +1,122 @@
+package org.task.userservice.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.task.userservice.entity.User;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.enums.Role;
+import org.task.userservice.repository.UserRepository;
+import org.task.userservice.service.JwtService;
+import org.task.userservice.service.UserProfileCache;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User patient;
+    private int userId;
+
+    @BeforeEach
+    public void setUp() {
+        patient = userRepository.save(User.builder().email("patient@mail.com").firstName("Janez").role(Role.PATIENT).build());
+        userId = patient.getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+        userProfileCache.invalidate(patient);
+    }
+
+    @Test
+    public void testColdProfileReadsAreOneStatement() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/user/userInfo/" + userId).with(user("patient@mail.com")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        userProfileCache.invalidate(patient);
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/user/").header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(patient)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testProfileETagIsWeakAndSharedAcrossFormats() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/user/userInfo/" + userId).with(user("patient@mail.com")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/user/userInfo/" + userId).accept(MediaType.APPLICATION_CBOR)
+                        .with(user("patient@mail.com")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        mockMvc.perform(get("/api/v1/user/userInfo/" + userId).header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .with(user("patient@mail.com")))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    public void testDoctorsStreamCompletesAsyncDispatchWithBearerToken() throws Exception {
+        User doctor = userRepository.save(User.builder().email("doctor@mail.com").firstName("Janez").lastName("Kranjski")
+                .role(Role.DOCTOR).services(List.of(MedicalService.GENERAL_CHECKUP)).build());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/user/doctors/stream").param("medicalService", "GENERAL_CHECKUP")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(patient)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].doctorId").value(doctor.getId()))
+                .andExpect(jsonPath("$[0].firstname").value("Janez"));
+    }
+}
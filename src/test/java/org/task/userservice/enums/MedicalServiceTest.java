@@ -0,0 +1,30 @@
+package org.task.userservice.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MedicalServiceTest {
+
+    @Test
+    public void testParseMatchesDisplayValueAndName() {
+        for (MedicalService service : MedicalService.values()) {
+            assertEquals(Optional.of(service), MedicalService.parse(service.getValue()));
+            assertEquals(Optional.of(service), MedicalService.parse(service.name()));
+        }
+    }
+
+    @Test
+    public void testParseIgnoresCaseAndSurroundingWhitespace() {
+        assertEquals(Optional.of(MedicalService.GENERAL_CHECKUP), MedicalService.parse("  general CHECKUP "));
+        assertEquals(Optional.of(MedicalService.DENTAL_CLEANING), MedicalService.parse("dental_cleaning"));
+    }
+
+    @Test
+    public void testParseUnknownIsEmpty() {
+        assertTrue(MedicalService.parse("Brain surgery").isEmpty());
+        assertTrue(MedicalService.parse(null).isEmpty());
+    }
+}
@@ -0,0 +1,269 @@
+package org.task.userservice.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.task.userservice.entity.User;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.enums.Role;
+import org.task.userservice.repository.UserRepository;
+import org.task.userservice.service.DoctorIndex;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End-to-end load test against the application on a random port and the in-memory H2 database.
+ * Seeds {@code loadtest.doctors} doctors and {@code loadtest.patients} patients, then sends
+ * {@code loadtest.requests} requests from {@code loadtest.concurrency} closed-loop clients in a
+ * weighted mix of endpoints, after {@code loadtest.warmup-requests} unrecorded ones.
+ * Prints p50/p99 latency and requests per second per endpoint.
+ * {@code loadtest.db-latency} (ISO-8601, default {@code PT0S}) adds a fixed delay to every
+ * statement so that requests wait on the database the way they would against a remote one.
+ * Excluded from the default build; run with {@code mvn -Ploadtest test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class UserServiceLoadTest {
+    private static final String PASSWORD = "loadtest-password";
+
+    enum Endpoint {
+        AUTHENTICATE(5), USER_INFO(30), USER_ID(20), DOCTORS(25), USER_INFO_BY_ID(20);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    @TestConfiguration
+    static class DatabaseLatency {
+        @Bean
+        static BeanPostProcessor delayingDataSourcePostProcessor(@Value("${loadtest.db-latency:PT0S}") Duration latency) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !latency.isZero()) {
+                        return new DelayingDataSource(dataSource, latency);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DoctorIndex doctorIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${loadtest.doctors:200}")
+    private int doctors;
+
+    @Value("${loadtest.patients:1000}")
+    private int patients;
+
+    @Value("${loadtest.requests:20000}")
+    private int requests;
+
+    @Value("${loadtest.warmup-requests:2000}")
+    private int warmupRequests;
+
+    @Value("${loadtest.concurrency:32}")
+    private int concurrency;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private List<User> users;
+    private List<String> tokens;
+
+    @BeforeEach
+    public void seed() throws Exception {
+        userRepository.deleteAll();
+        String encoded = passwordEncoder.encode(PASSWORD);
+        MedicalService[] services = MedicalService.values();
+        List<User> seeded = new ArrayList<>();
+        for (int i = 0; i < doctors; i++) {
+            seeded.add(User.builder()
+                    .firstName("Doctor" + i).lastName("Load").email("doctor" + i + "@load.test")
+                    .password(encoded).role(Role.DOCTOR)
+                    .services(List.of(services[i % services.length]))
+                    .build());
+        }
+        for (int i = 0; i < patients; i++) {
+            seeded.add(User.builder()
+                    .firstName("Patient" + i).lastName("Load").email("patient" + i + "@load.test")
+                    .password(encoded).role(Role.PATIENT)
+                    .build());
+        }
+        users = userRepository.saveAll(seeded);
+        doctorIndex.rebuild();
+
+        tokens = new ArrayList<>();
+        for (User user : users.subList(0, Math.min(users.size(), 100))) {
+            JsonNode response = objectMapper.readTree(login(user.getEmail()).body());
+            tokens.add(response.get("token").asText());
+        }
+    }
+
+    @Test
+    public void endpointMix() throws Exception {
+        run(warmupRequests, null);
+
+        Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+        long started = System.nanoTime();
+        run(requests, stats);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("%n%-16s %8s %8s %10s %10s %10s%n", "endpoint", "requests", "errors", "p50 ms", "p99 ms", "req/s");
+        int errors = 0;
+        for (var entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            long[] latencies = s.sortedLatencies();
+            System.out.printf("%-16s %8d %8d %10.2f %10.2f %10.1f%n", entry.getKey(), latencies.length, s.errors.sum(),
+                    percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, latencies.length / seconds);
+            errors += s.errors.intValue();
+        }
+        System.out.printf("%-16s %8d %8d %10s %10s %10.1f%n%n", "total", requests, errors, "", "", requests / seconds);
+        assertEquals(0, errors, "non-2xx responses during the load test");
+    }
+
+    private void run(int count, Map<Endpoint, Stats> stats) throws Exception {
+        AtomicInteger remaining = new AtomicInteger(count);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        Endpoint endpoint = pick();
+                        long start = System.nanoTime();
+                        int status = send(endpoint);
+                        long elapsed = System.nanoTime() - start;
+                        if (stats != null) {
+                            stats.get(endpoint).record(elapsed, status);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private int send(Endpoint endpoint) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String token = tokens.get(random.nextInt(tokens.size()));
+        return switch (endpoint) {
+            case AUTHENTICATE -> login(users.get(random.nextInt(users.size())).getEmail()).statusCode();
+            case USER_INFO -> get("/api/v1/user/", token);
+            case USER_ID -> get("/api/v1/user/userId", token);
+            case DOCTORS -> get("/api/v1/user/doctors/?medicalService="
+                    + URLEncoder.encode(MedicalService.values()[random.nextInt(MedicalService.values().length)].getValue(), StandardCharsets.UTF_8), token);
+            case USER_INFO_BY_ID -> get("/api/v1/user/userInfo/" + users.get(random.nextInt(users.size())).getId(), token);
+        };
+    }
+
+    private HttpResponse<String> login(String email) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("email", email, "password", PASSWORD));
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/v1/auth/authenticate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private int get(String path, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static Endpoint pick() {
+        int total = Arrays.stream(Endpoint.values()).mapToInt(e -> e.weight).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static class Stats {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long nanos, int status) {
+            latencies.add(nanos);
+            if (status < 200 || status >= 300) {
+                errors.increment();
+            }
+        }
+
+        long[] sortedLatencies() {
+            return latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.task.userservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.task.userservice.entity.TokenFamily;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class TokenFamilyRepositoryTest {
+
+    @Autowired
+    private TokenFamilyRepository tokenFamilyRepository;
+
+    @Test
+    public void testDeleteEndedRemovesRevokedAndExpiredFamiliesOnly() {
+        Instant now = Instant.now();
+        TokenFamily active = tokenFamilyRepository.save(family(now.plus(Duration.ofDays(1)), false));
+        tokenFamilyRepository.save(family(now.plus(Duration.ofDays(1)), true));
+        tokenFamilyRepository.save(family(now.minus(Duration.ofMinutes(1)), false));
+        tokenFamilyRepository.flush();
+
+        assertEquals(2, tokenFamilyRepository.deleteEnded(now));
+        assertEquals(List.of(active.getId()), tokenFamilyRepository.findAll().stream().map(TokenFamily::getId).toList());
+    }
+
+    private static TokenFamily family(Instant expiresAt, boolean revoked) {
+        return TokenFamily.builder()
+                .id(UUID.randomUUID().toString())
+                .email("testUser@mail.com")
+                .tokenHash("hash")
+                .expiresAt(expiresAt)
+                .revoked(revoked)
+                .build();
+    }
+}
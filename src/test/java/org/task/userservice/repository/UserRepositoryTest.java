@@ -0,0 +1,119 @@
+package org.task.userservice.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.task.userservice.entity.User;
+import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.enums.Role;
+import org.task.userservice.response.InfoResponse;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User doctor;
+    private User patient;
+
+    @BeforeEach
+    public void setUp() {
+        doctor = entityManager.persist(User.builder()
+                .firstName("Janez")
+                .lastName("Kranjski")
+                .email("doctor@mail.com")
+                .role(Role.DOCTOR)
+                .services(List.of(MedicalService.GENERAL_CHECKUP, MedicalService.DENTAL_CLEANING))
+                .build());
+        patient = entityManager.persist(User.builder()
+                .firstName("Ana")
+                .lastName("Novak")
+                .email("patient@mail.com")
+                .role(Role.PATIENT)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testFindWithServicesByEmailIsOneStatement() {
+        User user = userRepository.findWithServicesByEmail("doctor@mail.com").orElseThrow();
+
+        assertEquals(2, user.getServices().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testFindWithServicesByIdIsOneStatement() {
+        User user = userRepository.findWithServicesById(doctor.getId()).orElseThrow();
+
+        assertEquals(2, user.getServices().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testFindUsersByServiceAfterSeeksPastCursor() {
+        User second = entityManager.persist(User.builder()
+                .firstName("Marko")
+                .lastName("Horvat")
+                .email("second@mail.com")
+                .role(Role.DOCTOR)
+                .services(List.of(MedicalService.GENERAL_CHECKUP))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<UserNameSurname> first = userRepository.findUsersByServiceAfter(MedicalService.GENERAL_CHECKUP, 0, PageRequest.ofSize(1));
+        List<UserNameSurname> next = userRepository.findUsersByServiceAfter(MedicalService.GENERAL_CHECKUP, first.getLast().doctorId(), PageRequest.ofSize(1));
+
+        assertEquals(List.of(doctor.getId()), first.stream().map(UserNameSurname::doctorId).toList());
+        assertEquals(List.of(second.getId()), next.stream().map(UserNameSurname::doctorId).toList());
+        assertTrue(userRepository.findUsersByServiceAfter(MedicalService.GENERAL_CHECKUP, second.getId(), PageRequest.ofSize(1)).isEmpty());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testStreamUsersByServiceReturnsDoctorsInIdOrder() {
+        try (Stream<UserNameSurname> doctors = userRepository.streamUsersByService(MedicalService.DENTAL_CLEANING)) {
+            assertEquals(List.of(new UserNameSurname(doctor.getId(), "Janez", "Kranjski")), doctors.toList());
+        }
+        try (Stream<UserNameSurname> doctors = userRepository.streamUsersByService(MedicalService.CARDIOLOGY_CONSULTATION)) {
+            assertTrue(doctors.findAny().isEmpty());
+        }
+    }
+
+    @Test
+    public void testFindInfoByIdInIsOneStatement() {
+        List<InfoResponse> infos = userRepository.findInfoByIdIn(List.of(doctor.getId(), patient.getId()));
+
+        assertEquals(2, infos.size());
+        InfoResponse doctorInfo = infos.stream().filter(i -> i.getId() == doctor.getId()).findFirst().orElseThrow();
+        assertEquals(List.of(MedicalService.GENERAL_CHECKUP, MedicalService.DENTAL_CLEANING), doctorInfo.getServices());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,50 @@
+package org.task.userservice.service;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.task.userservice.config.JwtProperties;
+import org.task.userservice.config.TestJwtProperties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthFailureMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testLoginFailureIsCountedByCause() {
+        AuthFailureMetrics metrics = new AuthFailureMetrics(meterRegistry);
+
+        metrics.onAuthenticationFailure(new AuthenticationFailureBadCredentialsEvent(
+                new UsernamePasswordAuthenticationToken("testUser@mail.com", "wrong"),
+                new BadCredentialsException("Bad credentials")));
+
+        assertEquals(1, meterRegistry.get(AuthFailureMetrics.AUTH_FAILURES)
+                .tag("source", AuthFailureMetrics.SOURCE_LOGIN)
+                .tag("cause", "BadCredentialsException")
+                .counter().count());
+    }
+
+    @Test
+    public void testRejectedTokenIsCountedAndTimed() {
+        JwtService jwtService = new JwtService(new JwtKeyRing(TestJwtProperties.withEphemeralKey()), new VerifiedTokenCache(new JwtProperties()), new JwtProperties(), meterRegistry);
+        String unsigned = Jwts.builder().subject("testUser@mail.com").compact();
+
+        assertThrows(Exception.class, () -> jwtService.extractAllClaims(unsigned));
+
+        assertEquals(1, meterRegistry.get(AuthFailureMetrics.AUTH_FAILURES)
+                .tag("source", AuthFailureMetrics.SOURCE_TOKEN)
+                .counter().count());
+        assertEquals(1, meterRegistry.get("jwt.verify").timer().count());
+    }
+}
@@ -1,28 +1,43 @@
 package org.task.userservice.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.task.userservice.config.LoginCacheProperties;
+import org.task.userservice.config.TokenContext;
+import org.task.userservice.config.UserInfoProperties;
 import org.task.userservice.entity.User;
 import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.entity.UserVersion;
 import org.task.userservice.enums.MedicalService;
 import org.task.userservice.enums.Role;
+import org.task.userservice.exceptions.BatchSizeExceededException;
 import org.task.userservice.exceptions.EmailAlreadyInUseException;
+import org.task.userservice.exceptions.RoleNotAllowedException;
+import org.task.userservice.exceptions.UnknownMedicalServiceException;
 import org.task.userservice.repository.UserRepository;
 import org.task.userservice.request.RegisterRequest;
 import org.task.userservice.response.AuthenticationResponse;
+import org.task.userservice.response.DoctorPageResponse;
 import org.task.userservice.response.InfoResponse;
 
 import java.security.InvalidParameterException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,14 +59,26 @@ public class AuthenticationServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private TokenContext tokenContext;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private DoctorIndex doctorIndex;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        authenticationService = new AuthenticationService(userRepository, passwordEncoder, jwtService, authenticationManager);
+        authenticationService = new AuthenticationService(userRepository, passwordEncoder, jwtService, authenticationManager, tokenContext, userProfileCache, doctorIndex, new UserInfoProperties(), new LoginCoalescer(new LoginCacheProperties(), new SimpleMeterRegistry()), refreshTokenService);
     }
 
     @Test
-    public void testRegisterSuccess() throws EmailAlreadyInUseException {
+    public void testRegisterSuccess() throws EmailAlreadyInUseException, RoleNotAllowedException {
         RegisterRequest request = RegisterRequest.builder()
                 .email("testUser@mail.com")
                 .password("doktor")
@@ -62,7 +89,6 @@ public class AuthenticationServiceTest {
                 .services(List.of(MedicalService.GENERAL_CHECKUP, MedicalService.DENTAL_CLEANING))
                 .build();
 
-        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.empty());
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedDoktor");
 
         User user = User.builder()
@@ -78,13 +104,15 @@ public class AuthenticationServiceTest {
         String token = "token";
         HashMap<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("role", Role.DOCTOR);
+        extraClaims.put("userId", 0);
+        extraClaims.put("services", List.of(MedicalService.GENERAL_CHECKUP, MedicalService.DENTAL_CLEANING));
 
         when(jwtService.generateToken(extraClaims, user)).thenReturn(token);
 
         AuthenticationResponse response = authenticationService.register(request);
 
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
+        verify(userRepository).saveAndFlush(userCaptor.capture());
         User capturedUser = userCaptor.getValue();
 
         assertEquals("Janez", capturedUser.getFirstName());
@@ -96,6 +124,20 @@ public class AuthenticationServiceTest {
 
         assertEquals(token, response.getToken());
         assertEquals(Role.DOCTOR, response.getRole());
+        verify(userProfileCache).invalidate(capturedUser);
+        verify(doctorIndex).add(capturedUser);
+    }
+
+    @Test
+    public void testRegisterAdminIsRejected() {
+        RegisterRequest request = RegisterRequest.builder()
+                .email("admin@mail.com")
+                .password("admin")
+                .role(Role.ADMIN)
+                .build();
+
+        assertThrows(RoleNotAllowedException.class, () -> authenticationService.register(request));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -110,9 +152,11 @@ public class AuthenticationServiceTest {
                 .services(List.of(MedicalService.GENERAL_CHECKUP, MedicalService.DENTAL_CLEANING))
                 .build();
         
-        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(new User()));
+        when(userRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, User.EMAIL_INDEX)));
 
         assertThrows(EmailAlreadyInUseException.class, () -> authenticationService.register(request));
+        verify(userProfileCache, never()).invalidate(any());
     }
 
     @Test
@@ -125,13 +169,15 @@ public class AuthenticationServiceTest {
 
         HashMap<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("role", Role.DOCTOR);
+        extraClaims.put("userId", 3);
 
         User user = User.builder()
+                .id(3)
                 .email("testUser@email.com")
                 .role(Role.DOCTOR)
                 .build();
         
-        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+        when(userProfileCache.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
 
         String token = "token";
         when(jwtService.generateToken(extraClaims, user)).thenReturn(token);
@@ -142,9 +188,40 @@ public class AuthenticationServiceTest {
         assertEquals(token, response.getToken());
     }
 
+    @Test
+    public void testAuthenticateRetryReusesRecentToken() {
+        RegisterRequest request = RegisterRequest.builder().email("testUser@email.com").password("pacient").build();
+        User user = User.builder().email("testUser@email.com").role(Role.DOCTOR).build();
+        when(userProfileCache.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+        when(jwtService.generateToken(any(), any())).thenReturn("token");
+        when(refreshTokenService.issue("testUser@email.com")).thenReturn("family1.secret", "family2.secret");
+
+        AuthenticationResponse first = authenticationService.authenticate(request);
+        AuthenticationResponse retry = authenticationService.authenticate(request);
+
+        assertEquals("token", retry.getToken());
+        assertEquals("family1.secret", first.getRefreshToken());
+        assertEquals("family2.secret", retry.getRefreshToken());
+        verify(authenticationManager, times(1)).authenticate(any());
+        verify(jwtService, times(1)).generateToken(any(), any());
+    }
+
+    @Test
+    public void testAuthenticateWithOtherPasswordIsVerifiedAgain() {
+        User user = User.builder().email("testUser@email.com").role(Role.DOCTOR).build();
+        when(userProfileCache.findByEmail("testUser@email.com")).thenReturn(Optional.of(user));
+        when(jwtService.generateToken(any(), any())).thenReturn("token");
+
+        authenticationService.authenticate(RegisterRequest.builder().email("testUser@email.com").password("pacient").build());
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.authenticate(
+                RegisterRequest.builder().email("testUser@email.com").password("wrong").build()));
+        verify(authenticationManager, times(2)).authenticate(any());
+    }
+
     @Test
     public void testGetUserInfoSuccess() {
-        String token = "token";
         User user = User.builder()
                 .id(1)
                 .firstName("Janez")
@@ -154,28 +231,44 @@ public class AuthenticationServiceTest {
                 .role(Role.DOCTOR)
                 .build();
         
-        when(jwtService.extractUsername(token)).thenReturn("testUser@mail.com");
-        when(userRepository.findByEmail("testUser@mail.com")).thenReturn(Optional.of(user));
+        when(tokenContext.getSubject()).thenReturn("testUser@mail.com");
+        when(userProfileCache.findByEmail("testUser@mail.com")).thenReturn(Optional.of(user));
 
-        InfoResponse response = authenticationService.getUserInfo(token);
+        InfoResponse response = authenticationService.getUserInfo();
 
         assertEquals("Janez", response.getFirstName());
     }
 
     @Test
     public void testGetUserInfoNotFound() {
-        String token = "token";
-        when(jwtService.extractUsername(token)).thenReturn("testUser@mail.com");
-        when(userRepository.findByEmail("testUser@mail.com")).thenReturn(Optional.empty());
+        when(tokenContext.getSubject()).thenReturn("testUser@mail.com");
+        when(userProfileCache.findByEmail("testUser@mail.com")).thenReturn(Optional.empty());
 
-        assertThrows(UsernameNotFoundException.class, () -> authenticationService.getUserInfo(token));
+        assertThrows(UsernameNotFoundException.class, () -> authenticationService.getUserInfo());
     }
 
     @Test
-    public void testGetDoctorsForServiceSuccess() {
-        MedicalService service = MedicalService.fromString("General checkup");
+    public void testGetUserInfoVersionLoadsThroughCache() {
+        when(tokenContext.getSubject()).thenReturn("testUser@mail.com");
+        when(userProfileCache.findByEmail("testUser@mail.com")).thenReturn(Optional.of(User.builder().id(1).version(2).build()));
+
+        assertEquals(new UserVersion(1, 2), authenticationService.getUserInfoVersion().orElseThrow());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testGetUserInfoVersionByIdIsEmptyForUnknownUser() {
+        when(userProfileCache.findById(1)).thenReturn(Optional.empty());
+
+        assertTrue(authenticationService.getUserInfoVersionById(1).isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testGetDoctorsForServiceSuccess() throws UnknownMedicalServiceException {
+        MedicalService service = MedicalService.GENERAL_CHECKUP;
         List<UserNameSurname> doctors = List.of(new UserNameSurname(1, "Janez", "Kranjski"));
-        when(userRepository.findUsersByService(service)).thenReturn(Optional.of(doctors));
+        when(doctorIndex.findDoctors(service)).thenReturn(Optional.of(doctors));
 
         List<UserNameSurname> result = authenticationService.getDoctorsForService("General checkup");
 
@@ -185,35 +278,76 @@ public class AuthenticationServiceTest {
 
     @Test
     public void testGetDoctorsForServiceNoDoctors() {
-        MedicalService service = MedicalService.fromString("General checkup");
-        when(userRepository.findUsersByService(service)).thenReturn(Optional.empty());
+        MedicalService service = MedicalService.GENERAL_CHECKUP;
+        when(doctorIndex.findDoctors(service)).thenReturn(Optional.empty());
 
         assertThrows(InvalidParameterException.class, () -> authenticationService.getDoctorsForService("General checkup"));
     }
 
+    @Test
+    public void testGetDoctorsForServiceUnknownServiceFailsBeforeLookup() {
+        assertThrows(UnknownMedicalServiceException.class, () -> authenticationService.getDoctorsForService("Brain surgery"));
+        assertThrows(UnknownMedicalServiceException.class, () -> authenticationService.getDoctorsForService(null));
+
+        verifyNoInteractions(doctorIndex, userRepository);
+    }
+
+    @Test
+    public void testGetDoctorsPageForServiceReturnsCursorWhenPageIsFull() throws UnknownMedicalServiceException {
+        MedicalService service = MedicalService.GENERAL_CHECKUP;
+        List<UserNameSurname> doctors = List.of(new UserNameSurname(1, "Janez", "Kranjski"), new UserNameSurname(4, "Ana", "Novak"));
+        when(userRepository.findUsersByServiceAfter(service, 0, PageRequest.ofSize(2))).thenReturn(doctors);
+
+        DoctorPageResponse page = authenticationService.getDoctorsPageForService("General checkup", 0, 2);
+
+        assertEquals(2, page.getDoctors().size());
+        assertEquals(4, page.getNextCursor());
+        verifyNoInteractions(doctorIndex);
+    }
+
+    @Test
+    public void testGetDoctorsPageForServiceEndsWithoutCursor() throws UnknownMedicalServiceException {
+        MedicalService service = MedicalService.GENERAL_CHECKUP;
+        when(userRepository.findUsersByServiceAfter(service, 4, PageRequest.ofSize(2)))
+                .thenReturn(List.of(new UserNameSurname(7, "Marko", "Horvat")));
+
+        DoctorPageResponse page = authenticationService.getDoctorsPageForService("General checkup", 4, 2);
+
+        assertEquals(1, page.getDoctors().size());
+        assertNull(page.getNextCursor());
+    }
+
     @Test
     public void testGetUserIdSuccess() {
-        String token = "token";
         User user = User.builder()
                 .id(1)
                 .email("testUser@mail.com")
                 .build();
 
-        when(jwtService.extractUsername(token)).thenReturn("testUser@mail.com");
-        when(userRepository.findByEmail("testUser@mail.com")).thenReturn(Optional.of(user));
+        when(tokenContext.getUserId()).thenReturn(null);
+        when(tokenContext.getSubject()).thenReturn("testUser@mail.com");
+        when(userProfileCache.findByEmail("testUser@mail.com")).thenReturn(Optional.of(user));
 
-        int userId = authenticationService.getUserId(token);
+        int userId = authenticationService.getUserId();
 
         assertEquals(1, userId);
     }
 
+    @Test
+    public void testGetUserIdFromClaimSkipsLookup() {
+        when(tokenContext.getUserId()).thenReturn(7);
+
+        assertEquals(7, authenticationService.getUserId());
+        verifyNoInteractions(userProfileCache);
+    }
+
     @Test
     public void testGetUserIdNotFound() {
-        String token = "token";
-        when(jwtService.extractUsername(token)).thenReturn("testUser@mail.com");
-        when(userRepository.findByEmail("testUser@mail.com")).thenReturn(Optional.empty());
+        when(tokenContext.getUserId()).thenReturn(null);
+        when(tokenContext.getSubject()).thenReturn("testUser@mail.com");
+        when(userProfileCache.findByEmail("testUser@mail.com")).thenReturn(Optional.empty());
 
-        assertThrows(UsernameNotFoundException.class, () -> authenticationService.getUserId(token));
+        assertThrows(UsernameNotFoundException.class, () -> authenticationService.getUserId());
     }
 
     @Test
@@ -226,7 +360,7 @@ public class AuthenticationServiceTest {
                 .phone("1234567890")
                 .role(Role.PATIENT).build();
 
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userProfileCache.findById(1)).thenReturn(Optional.of(user));
 
         InfoResponse response = authenticationService.getUserInfoById(1);
 
@@ -243,7 +377,7 @@ public class AuthenticationServiceTest {
                 .phone("1234567890")
                 .role(Role.DOCTOR).build();
 
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userProfileCache.findById(1)).thenReturn(Optional.of(user));
 
         InfoResponse response = authenticationService.getUserInfoById(1);
 
@@ -252,8 +386,43 @@ public class AuthenticationServiceTest {
 
     @Test
     public void testGetUserInfoByIdNotFound() {
-        when(userRepository.findById(1)).thenReturn(Optional.empty());
+        when(userProfileCache.findById(1)).thenReturn(Optional.empty());
 
         assertThrows(UsernameNotFoundException.class, () -> authenticationService.getUserInfoById(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetUserInfoByIdsAppliesRoleFiltering() throws BatchSizeExceededException {
+        InfoResponse patient = InfoResponse.builder()
+                .id(1)
+                .firstName("Janez")
+                .role(Role.PATIENT)
+                .services(List.of())
+                .build();
+        InfoResponse doctor = InfoResponse.builder()
+                .id(2)
+                .firstName("Ana")
+                .role(Role.DOCTOR)
+                .services(List.of(MedicalService.DENTAL_CLEANING))
+                .build();
+
+        when(userRepository.findInfoByIdIn(any())).thenReturn(List.of(patient, doctor));
+
+        Map<Integer, InfoResponse> response = authenticationService.getUserInfoByIds(List.of(1, 2, 2, 3));
+
+        assertEquals(2, response.size());
+        assertNull(response.get(1).getServices());
+        assertEquals(List.of(MedicalService.DENTAL_CLEANING), response.get(2).getServices());
+        verify(userRepository, times(1)).findInfoByIdIn(any());
+    }
+
+    @Test
+    public void testGetUserInfoByIdsRejectsOversizedBatch() {
+        UserInfoProperties properties = new UserInfoProperties();
+        properties.setBatchMaxSize(2);
+        authenticationService = new AuthenticationService(userRepository, passwordEncoder, jwtService, authenticationManager, tokenContext, userProfileCache, doctorIndex, properties, new LoginCoalescer(new LoginCacheProperties(), new SimpleMeterRegistry()), refreshTokenService);
+
+        assertThrows(BatchSizeExceededException.class, () -> authenticationService.getUserInfoByIds(List.of(1, 2, 3)));
+        verify(userRepository, never()).findInfoByIdIn(any());
+    }
+}
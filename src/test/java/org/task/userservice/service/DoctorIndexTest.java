@@ -0,0 +1,78 @@
+package org.task.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.task.userservice.entity.User;
+import org.task.userservice.entity.UserNameSurname;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.enums.Role;
+import org.task.userservice.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class DoctorIndexTest {
+
+    private DoctorIndex doctorIndex;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doctorIndex = new DoctorIndex(userRepository);
+        when(userRepository.findUsersByService(any())).thenReturn(Optional.of(List.of()));
+        when(userRepository.findUsersByService(MedicalService.GENERAL_CHECKUP))
+                .thenReturn(Optional.of(List.of(new UserNameSurname(5, "Janez", "Kranjski"))));
+        doctorIndex.rebuild();
+    }
+
+    @Test
+    public void testRebuildLoadsEveryService() {
+        assertEquals(1, doctorIndex.findDoctors(MedicalService.GENERAL_CHECKUP).orElseThrow().size());
+        assertTrue(doctorIndex.findDoctors(MedicalService.CARDIOLOGY_CONSULTATION).orElseThrow().isEmpty());
+        verify(userRepository, times(MedicalService.values().length)).findUsersByService(any());
+    }
+
+    @Test
+    public void testAddKeepsListsSortedAndServesWithoutRepository() {
+        User doctor = User.builder()
+                .id(2)
+                .firstName("Ana")
+                .lastName("Novak")
+                .role(Role.DOCTOR)
+                .services(List.of(MedicalService.GENERAL_CHECKUP, MedicalService.DENTAL_CLEANING))
+                .build();
+
+        doctorIndex.add(doctor);
+        doctorIndex.add(doctor);
+
+        List<UserNameSurname> doctors = doctorIndex.findDoctors(MedicalService.GENERAL_CHECKUP).orElseThrow();
+        assertEquals(List.of(2, 5), doctors.stream().map(UserNameSurname::doctorId).toList());
+        assertEquals(1, doctorIndex.findDoctors(MedicalService.DENTAL_CLEANING).orElseThrow().size());
+        verify(userRepository, times(MedicalService.values().length)).findUsersByService(any());
+    }
+
+    @Test
+    public void testRebuildPicksUpDoctorsChangedElsewhere() {
+        when(userRepository.findUsersByService(MedicalService.GENERAL_CHECKUP))
+                .thenReturn(Optional.of(List.of(new UserNameSurname(9, "Maja", "Zupan"))));
+
+        doctorIndex.rebuild();
+
+        List<UserNameSurname> doctors = doctorIndex.findDoctors(MedicalService.GENERAL_CHECKUP).orElseThrow();
+        assertEquals(List.of(9), doctors.stream().map(UserNameSurname::doctorId).toList());
+    }
+
+    @Test
+    public void testUnknownServiceIsEmpty() {
+        assertTrue(doctorIndex.findDoctors(null).isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+package org.task.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.task.userservice.config.ReferenceDataProperties;
+import org.task.userservice.controller.UserController;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class JsonResponseCacheTest {
+
+    private JsonResponseCache jsonResponseCache;
+
+    @BeforeEach
+    public void setUp() {
+        jsonResponseCache = new JsonResponseCache(new ObjectMapper(), new ReferenceDataProperties());
+    }
+
+    @Test
+    public void testBodyIsSerializedOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        ResponseEntity<byte[]> first = jsonResponseCache.respond("key", () -> List.of("a", "b", calls.incrementAndGet()));
+        ResponseEntity<byte[]> second = jsonResponseCache.respond("key", () -> List.of("a", "b", calls.incrementAndGet()));
+
+        assertEquals(1, calls.get());
+        assertSame(first.getBody(), second.getBody());
+        assertEquals("[\"a\",\"b\",1]", new String(first.getBody()));
+        assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        assertEquals("max-age=3600, public", first.getHeaders().getCacheControl());
+    }
+
+    @Test
+    public void testInvalidateRecomputesBody() {
+        String etag = jsonResponseCache.respond("key", () -> List.of("a")).getHeaders().getETag();
+        jsonResponseCache.invalidate("key");
+
+        assertNotEquals(etag, jsonResponseCache.respond("key", () -> List.of("b")).getHeaders().getETag());
+    }
+
+    @Test
+    public void testServicesAnswersIfNoneMatchWithNotModified() throws Exception {
+        UserController controller = new UserController(mock(AuthenticationService.class), new ObjectMapper(), jsonResponseCache);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        String etag = mockMvc.perform(get("/api/v1/user/services"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("General checkup"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/user/services").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+}
@@ -0,0 +1,169 @@
+package org.task.userservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.task.userservice.config.JwtProperties;
+import org.task.userservice.config.TestJwtProperties;
+import org.task.userservice.entity.User;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtKeyRingTest {
+
+    private JwtProperties properties;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        properties = TestJwtProperties.withEphemeralKey();
+        properties.getCache().setEnabled(false);
+        user = User.builder().email("testUser@mail.com").build();
+    }
+
+    @Test
+    public void testTokensCarryKidAndVerifyAgainstPublishedKey() throws Exception {
+        JwtKeyRing keyRing = new JwtKeyRing(properties);
+        String token = jwtService(keyRing).generateToken(user);
+
+        JsonNode header = new ObjectMapper().readTree(Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+        assertEquals("ES256", header.get("alg").asText());
+        assertEquals(keyRing.signingKey().kid(), header.get("kid").asText());
+
+        JsonNode jwks = new ObjectMapper().readTree(new ObjectMapper().writeValueAsBytes(keyRing.jwkSet()));
+        JsonNode key = jwks.get("keys").get(0);
+        assertEquals(keyRing.signingKey().kid(), key.get("kid").asText());
+        assertEquals("P-256", key.get("crv").asText());
+        assertFalse(key.has("d"));
+        assertEquals("testUser@mail.com", Jwts.parser().verifyWith(keyRing.signingKey().jwk().toKey())
+                .build().parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Test
+    public void testReloadRotatesThroughConfiguredKeys() {
+        KeyPair first = Jwts.SIG.ES256.keyPair().build();
+        KeyPair second = Jwts.SIG.ES256.keyPair().build();
+        properties.getSigning().getKeys().add(key("first", first, first));
+        JwtKeyRing keyRing = new JwtKeyRing(properties);
+        JwtService jwtService = jwtService(keyRing);
+        String token = jwtService.generateToken(user);
+
+        properties.getSigning().getKeys().add(key("second", second, second));
+        keyRing.reload();
+        assertEquals("first", keyRing.signingKey().kid());
+        assertEquals(2, ((List<?>) keyRing.jwkSet().get("keys")).size());
+
+        properties.getSigning().setActiveKid("second");
+        keyRing.reload();
+        assertEquals("second", keyRing.signingKey().kid());
+        assertEquals("testUser@mail.com", jwtService.extractUsername(token));
+
+        properties.getSigning().getKeys().removeFirst();
+        keyRing.reload();
+        assertEquals(1, ((List<?>) keyRing.jwkSet().get("keys")).size());
+        assertThrows(UnsupportedJwtException.class, () -> jwtService.extractUsername(token));
+    }
+
+    @Test
+    public void testReloadKeepsRingWhenConfigurationIsInvalid() {
+        KeyPair active = Jwts.SIG.ES256.keyPair().build();
+        properties.getSigning().getKeys().add(key("active", active, active));
+        JwtKeyRing keyRing = new JwtKeyRing(properties);
+
+        properties.getSigning().setActiveKid("missing");
+        assertThrows(IllegalStateException.class, keyRing::reload);
+        assertEquals("active", keyRing.signingKey().kid());
+    }
+
+    @Test
+    public void testConfiguredKeyRingSignsWithActiveKid() {
+        KeyPair retired = Jwts.SIG.ES256.keyPair().build();
+        KeyPair active = Jwts.SIG.ES256.keyPair().build();
+        properties.getSigning().getKeys().add(key("old", null, retired));
+        properties.getSigning().getKeys().add(key("new", active, active));
+        properties.getSigning().setActiveKid("new");
+
+        JwtKeyRing keyRing = new JwtKeyRing(properties);
+        String token = jwtService(keyRing).generateToken(user);
+
+        assertEquals("new", keyRing.signingKey().kid());
+        assertEquals("testUser@mail.com", Jwts.parser().verifyWith(active.getPublic()).build()
+                .parseSignedClaims(token).getPayload().getSubject());
+        assertEquals(2, ((List<?>) keyRing.jwkSet().get("keys")).size());
+    }
+
+    @Test
+    public void testLegacyHs256TokensAreAcceptedOnlyWhenEnabledAndRecent() {
+        SecretKey legacyKey = Jwts.SIG.HS256.key().build();
+        String recent = legacyToken(legacyKey, Instant.now().minus(Duration.ofHours(1)));
+        String old = legacyToken(legacyKey, Instant.now().minus(Duration.ofDays(2)));
+        assertThrows(UnsupportedJwtException.class, () -> jwtService(new JwtKeyRing(properties)).extractUsername(recent));
+
+        properties.getSigning().setAcceptLegacyHs256(true);
+        properties.getSigning().setLegacySecret(Base64.getEncoder().encodeToString(legacyKey.getEncoded()));
+        JwtService jwtService = jwtService(new JwtKeyRing(properties));
+
+        assertEquals("testUser@mail.com", jwtService.extractUsername(recent));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.extractUsername(old));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.extractUsername(Jwts.builder()
+                .subject("testUser@mail.com")
+                .signWith(legacyKey, Jwts.SIG.HS256)
+                .compact()));
+    }
+
+    @Test
+    public void testStartupFailsWithoutConfiguredKeysOrLegacySecret() {
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(new JwtProperties()));
+
+        properties.getSigning().setAcceptLegacyHs256(true);
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(properties));
+    }
+
+    @Test
+    public void testStartupFailsForUnsupportedAlgorithm() {
+        properties.getSigning().setAlgorithm("HS256");
+        IllegalStateException mac = assertThrows(IllegalStateException.class, () -> new JwtKeyRing(properties));
+        assertTrue(mac.getMessage().contains("HS256"));
+
+        properties.getSigning().setAlgorithm("ES265");
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(properties));
+
+        properties.getSigning().setAlgorithm("RS256");
+        assertEquals("RS256", new JwtKeyRing(properties).algorithm().getId());
+    }
+
+    private JwtService jwtService(JwtKeyRing keyRing) {
+        return new JwtService(keyRing, new VerifiedTokenCache(properties), properties, new SimpleMeterRegistry());
+    }
+
+    private static String legacyToken(SecretKey key, Instant issuedAt) {
+        return Jwts.builder()
+                .subject("testUser@mail.com")
+                .issuedAt(Date.from(issuedAt))
+                .signWith(key, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    private static JwtProperties.Key key(String kid, KeyPair privateHalf, KeyPair publicHalf) {
+        JwtProperties.Key key = new JwtProperties.Key();
+        key.setKid(kid);
+        key.setPublicKey(Base64.getEncoder().encodeToString(publicHalf.getPublic().getEncoded()));
+        if (privateHalf != null) {
+            key.setPrivateKey(Base64.getEncoder().encodeToString(privateHalf.getPrivate().getEncoded()));
+        }
+        return key;
+    }
+}
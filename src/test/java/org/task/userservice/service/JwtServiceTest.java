@@ -1,17 +1,22 @@
 package org.task.userservice.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.task.userservice.config.JwtProperties;
+import org.task.userservice.config.TestJwtProperties;
 
 import javax.crypto.SecretKey;
 
+import java.util.Date;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,7 +34,10 @@ public class JwtServiceTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        jwtService = new JwtService();
+        JwtProperties properties = TestJwtProperties.withEphemeralKey();
+        properties.getSigning().setAcceptLegacyHs256(true);
+        properties.getSigning().setLegacySecret(SECRET_KEY);
+        jwtService = new JwtService(new JwtKeyRing(properties), new VerifiedTokenCache(new JwtProperties()), new JwtProperties(), new SimpleMeterRegistry());
         secretKey = Keys.hmacShaKeyFor(io.jsonwebtoken.io.Decoders.BASE64.decode(SECRET_KEY));
     }
 
@@ -47,6 +55,7 @@ public class JwtServiceTest {
     public void testExtractClaim() {
         String token = Jwts.builder()
                 .setSubject("testUser@mail.com")
+                .setIssuedAt(new Date())
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
 
@@ -70,6 +79,7 @@ public class JwtServiceTest {
     public void testExtractUsername() {
         String token = Jwts.builder()
                 .setSubject("testUser@mail.com")
+                .setIssuedAt(new Date())
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
 
@@ -77,4 +87,32 @@ public class JwtServiceTest {
 
         assertEquals("testUser@mail.com", username);
     }
+
+    @Test
+    public void testVerifiedClaimsAreCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new JwtProperties());
+        jwtService = new JwtService(new JwtKeyRing(TestJwtProperties.withEphemeralKey()), cache, new JwtProperties(), new SimpleMeterRegistry());
+        when(userDetails.getUsername()).thenReturn("testUser@mail.com");
+        String token = jwtService.generateToken(userDetails);
+
+        jwtService.extractUsername(token);
+        jwtService.extractUsername(token);
+
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void testFailedVerificationIsNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new JwtProperties());
+        jwtService = new JwtService(new JwtKeyRing(TestJwtProperties.withEphemeralKey()), cache, new JwtProperties(), new SimpleMeterRegistry());
+        String token = Jwts.builder()
+                .subject("testUser@mail.com")
+                .signWith(Keys.hmacShaKeyFor(new byte[32]), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtService.extractUsername(token));
+        assertThrows(JwtException.class, () -> jwtService.extractUsername(token));
+        assertEquals(0, cache.stats().hitCount());
+    }
 }
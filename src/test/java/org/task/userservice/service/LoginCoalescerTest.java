@@ -0,0 +1,73 @@
+package org.task.userservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.task.userservice.config.LoginCacheProperties;
+import org.task.userservice.response.AuthenticationResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginCoalescerTest {
+    private static final int ATTEMPTS = 8;
+
+    @Test
+    public void testConcurrentIdenticalLoginsShareOneVerification() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoginCoalescer coalescer = new LoginCoalescer(new LoginCacheProperties(), meterRegistry);
+        AtomicInteger logins = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(ATTEMPTS);
+        try {
+            List<Future<AuthenticationResponse>> results = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                results.add(executor.submit(() -> coalescer.authenticate("testUser@mail.com", "secret", () -> {
+                    logins.incrementAndGet();
+                    await(release);
+                    return AuthenticationResponse.builder().token("token").build();
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<AuthenticationResponse> result : results) {
+                assertEquals("token", result.get(5, TimeUnit.SECONDS).getToken());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, logins.get());
+        assertEquals(ATTEMPTS - 1, meterRegistry.get("auth.login.reused").counters().stream().mapToDouble(c -> c.count()).sum());
+    }
+
+    @Test
+    public void testFailureIsSharedButNotCached() {
+        LoginCoalescer coalescer = new LoginCoalescer(new LoginCacheProperties(), new SimpleMeterRegistry());
+        AtomicInteger logins = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(BadCredentialsException.class, () -> coalescer.authenticate("testUser@mail.com", "wrong", () -> {
+                logins.incrementAndGet();
+                throw new BadCredentialsException("Bad credentials");
+            }));
+        }
+        assertEquals(2, logins.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
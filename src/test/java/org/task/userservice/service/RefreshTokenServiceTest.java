@@ -0,0 +1,120 @@
+package org.task.userservice.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.task.userservice.config.JwtProperties;
+import org.task.userservice.config.LoginCacheProperties;
+import org.task.userservice.entity.TokenFamily;
+import org.task.userservice.exceptions.InvalidRefreshTokenException;
+import org.task.userservice.repository.TokenFamilyRepository;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+    private static final String EMAIL = "testUser@mail.com";
+
+    @Mock
+    private TokenFamilyRepository tokenFamilyRepository;
+
+    private TokenRevocations tokenRevocations;
+    private TokenFamily family;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        tokenRevocations = new TokenRevocations(properties, new LoginCoalescer(new LoginCacheProperties(), new SimpleMeterRegistry()));
+        refreshTokenService = new RefreshTokenService(tokenFamilyRepository, tokenRevocations, properties);
+    }
+
+    @Test
+    public void testRotateReplacesTokenInSameFamily() throws Exception {
+        String token = issue();
+
+        var rotated = refreshTokenService.rotate(token);
+
+        assertEquals(EMAIL, rotated.email());
+        assertTrue(rotated.refreshToken().startsWith(family.getId() + "."));
+        assertNotEquals(token, rotated.refreshToken());
+        assertEquals(1, family.getGeneration());
+        verify(tokenFamilyRepository).saveAndFlush(family);
+    }
+
+    @Test
+    public void testReusedTokenRevokesAllSessions() throws Exception {
+        String original = issue();
+        refreshTokenService.rotate(original);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(original));
+
+        verify(tokenFamilyRepository).revokeAllByEmail(EMAIL);
+        assertTrue(tokenRevocations.isRevoked(accessTokenClaims(Instant.now().minusSeconds(5))));
+    }
+
+    @Test
+    public void testConcurrentRotationLosesOnVersionConflict() throws Exception {
+        String token = issue();
+        when(tokenFamilyRepository.saveAndFlush(family))
+                .thenThrow(new ObjectOptimisticLockingFailureException(TokenFamily.class, family.getId()));
+
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> refreshTokenService.rotate(token));
+        verify(tokenFamilyRepository, never()).revokeAllByEmail(any());
+    }
+
+    @Test
+    public void testRevokedFamilyIsRejected() {
+        String token = issue();
+        family.setRevoked(true);
+
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> refreshTokenService.rotate(token));
+    }
+
+    @Test
+    public void testMalformedTokenIsRejected() {
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("no-separator"));
+        verifyNoInteractions(tokenFamilyRepository);
+    }
+
+    @Test
+    public void testPurgeDeletesEndedFamiliesAsOfNow() {
+        Instant before = Instant.now();
+        when(tokenFamilyRepository.deleteEnded(any())).thenReturn(3);
+
+        assertEquals(3, refreshTokenService.purgeEnded());
+
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        verify(tokenFamilyRepository).deleteEnded(now.capture());
+        assertFalse(now.getValue().isBefore(before));
+    }
+
+    /** Issues a token and keeps the saved family reachable through the mocked repository. */
+    private String issue() {
+        ArgumentCaptor<TokenFamily> saved = ArgumentCaptor.forClass(TokenFamily.class);
+        String token = refreshTokenService.issue(EMAIL);
+        verify(tokenFamilyRepository).save(saved.capture());
+        family = saved.getValue();
+        lenient().when(tokenFamilyRepository.findById(family.getId())).thenReturn(Optional.of(family));
+        return token;
+    }
+
+    private static Claims accessTokenClaims(Instant issuedAt) {
+        return Jwts.claims().subject(EMAIL).issuedAt(Date.from(issuedAt)).build();
+    }
+}
@@ -0,0 +1,104 @@
+package org.task.userservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.task.userservice.config.LoginCacheProperties;
+import org.task.userservice.config.TokenContext;
+import org.task.userservice.config.UserInfoProperties;
+import org.task.userservice.enums.Role;
+import org.task.userservice.exceptions.EmailAlreadyInUseException;
+import org.task.userservice.repository.UserRepository;
+import org.task.userservice.request.RegisterRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RegistrationConcurrencyTest {
+    private static final int ATTEMPTS = 8;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private AuthenticationService authenticationService;
+
+    @BeforeEach
+    public void setUp() {
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("encodedDoktor");
+        authenticationService = new AuthenticationService(
+                userRepository,
+                passwordEncoder,
+                mock(JwtService.class),
+                mock(AuthenticationManager.class),
+                mock(TokenContext.class),
+                mock(UserProfileCache.class),
+                mock(DoctorIndex.class),
+                new UserInfoProperties(),
+                new LoginCoalescer(new LoginCacheProperties(), new SimpleMeterRegistry()),
+                mock(RefreshTokenService.class)
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testParallelDuplicateRegistrationsCreateOneUser() throws Exception {
+        RegisterRequest request = RegisterRequest.builder()
+                .email("testUser@mail.com")
+                .password("doktor")
+                .firstname("Janez")
+                .lastname("Kranjski")
+                .role(Role.PATIENT)
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(ATTEMPTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    authenticationService.register(request);
+                    return true;
+                } catch (EmailAlreadyInUseException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int registered = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                registered++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, registered);
+        assertEquals(1, userRepository.count());
+    }
+}
@@ -0,0 +1,115 @@
+package org.task.userservice.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.task.userservice.config.JwtProperties;
+import org.task.userservice.config.LoginCacheProperties;
+import org.task.userservice.response.AuthenticationResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenRevocationsTest {
+    private static final String EMAIL = "testUser@mail.com";
+
+    private LoginCoalescer loginCoalescer;
+    private TokenRevocations revocations;
+
+    @BeforeEach
+    public void setUp() {
+        loginCoalescer = new LoginCoalescer(new LoginCacheProperties(), new SimpleMeterRegistry());
+        revocations = new TokenRevocations(new JwtProperties(), loginCoalescer);
+    }
+
+    @Test
+    public void testTokensIssuedBeforeRevocationAreRejected() throws Exception {
+        Claims claims = claims(EMAIL, Instant.now());
+        assertFalse(revocations.isRevoked(claims));
+
+        Thread.sleep(2);
+        revocations.revokeAll(EMAIL);
+
+        assertTrue(revocations.isRevoked(claims));
+        assertFalse(revocations.isRevoked(claims("other@mail.com", Instant.now())));
+    }
+
+    @Test
+    public void testLoginInSameSecondAfterRevocationIsAccepted() throws Exception {
+        revocations.revokeAll(EMAIL);
+        Thread.sleep(2);
+
+        assertFalse(revocations.isRevoked(claims(EMAIL, Instant.now())));
+    }
+
+    @Test
+    public void testLegacyTokensStayRevokedPastAccessTokenTtl() throws Exception {
+        JwtProperties properties = new JwtProperties();
+        properties.setAccessTokenTtl(Duration.ofMillis(20));
+        properties.getSigning().setAcceptLegacyHs256(true);
+        revocations = new TokenRevocations(properties, loginCoalescer);
+        Claims legacy = Jwts.claims().subject(EMAIL).issuedAt(Date.from(Instant.now().minusSeconds(60))).build();
+
+        revocations.revokeAll(EMAIL);
+        Thread.sleep(50);
+
+        assertTrue(revocations.isRevoked(legacy));
+    }
+
+    @Test
+    public void testRevocationExpiresWithAccessTokenTtlWithoutLegacyTokens() throws Exception {
+        JwtProperties properties = new JwtProperties();
+        properties.setAccessTokenTtl(Duration.ofMillis(20));
+        revocations = new TokenRevocations(properties, loginCoalescer);
+        Claims claims = claims(EMAIL, Instant.now().minusSeconds(60));
+
+        revocations.revokeAll(EMAIL);
+        Thread.sleep(50);
+
+        assertFalse(revocations.isRevoked(claims));
+    }
+
+    @Test
+    public void testRevocationDropsCachedLogins() {
+        AtomicInteger logins = new AtomicInteger();
+        loginCoalescer.authenticate(EMAIL, "secret", () -> login(logins));
+
+        revocations.revokeAll(EMAIL);
+        loginCoalescer.authenticate(EMAIL, "secret", () -> login(logins));
+
+        assertEquals(2, logins.get());
+    }
+
+    @Test
+    public void testLoginInFlightDuringRevocationIsNotCached() {
+        AtomicInteger logins = new AtomicInteger();
+        loginCoalescer.authenticate(EMAIL, "secret", () -> {
+            AuthenticationResponse response = login(logins);
+            revocations.revokeAll(EMAIL);
+            return response;
+        });
+
+        loginCoalescer.authenticate(EMAIL, "secret", () -> login(logins));
+
+        assertEquals(2, logins.get());
+    }
+
+    private static AuthenticationResponse login(AtomicInteger logins) {
+        logins.incrementAndGet();
+        return AuthenticationResponse.builder().token("token").build();
+    }
+
+    private static Claims claims(String subject, Instant issuedAt) {
+        return Jwts.claims()
+                .subject(subject)
+                .issuedAt(Date.from(issuedAt))
+                .add(JwtService.ISSUED_AT_MILLIS_CLAIM, issuedAt.toEpochMilli())
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package org.task.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.task.userservice.config.PasswordEncoders;
+import org.task.userservice.config.PasswordHashingProperties;
+import org.task.userservice.config.UserImportProperties;
+import org.task.userservice.entity.User;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.enums.Role;
+import org.task.userservice.repository.UserRepository;
+import org.task.userservice.response.ImportResponse;
+import org.task.userservice.response.ImportRowError;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserImportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DoctorIndex doctorIndex;
+    private PasswordHashingProperties passwordHashingProperties;
+    private ExecutorService hashingExecutor;
+    private UserImportService userImportService;
+
+    @BeforeEach
+    public void setUp() {
+        UserImportProperties properties = new UserImportProperties();
+        properties.setBatchSize(2);
+        passwordHashingProperties = new PasswordHashingProperties();
+        passwordHashingProperties.getBcrypt().setStrength(4);
+        doctorIndex = mock(DoctorIndex.class);
+        hashingExecutor = Executors.newFixedThreadPool(2);
+        userImportService = importService(properties);
+        userRepository.save(User.builder().email("existing@mail.com").role(Role.PATIENT).build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hashingExecutor.shutdown();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testImportReportsRowErrorsWithoutAbortingBatch() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"firstname\":\"Janez\",\"email\":\"doctor@mail.com\",\"password\":\"doktor\",\"role\":\"DOCTOR\",\"services\":[\"GENERAL_CHECKUP\"]}",
+                "{\"email\":\"patient@mail.com\",\"password\":\"pacient\",\"role\":\"PATIENT\"}",
+                "not json",
+                "{\"email\":\"existing@mail.com\",\"password\":\"pacient\",\"role\":\"PATIENT\"}",
+                "{\"email\":\"patient@mail.com\",\"password\":\"pacient\",\"role\":\"PATIENT\"}",
+                "",
+                "{\"email\":\"norole@mail.com\",\"password\":\"pacient\"}",
+                "{\"email\":\"last@mail.com\",\"password\":\"pacient\",\"role\":\"PATIENT\"}");
+
+        ImportResponse response = userImportService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, response.getImported());
+        assertEquals(4, response.getFailed());
+        assertEquals(List.of(3, 4, 5, 7), response.getErrors().stream().map(ImportRowError::line).sorted().toList());
+        assertEquals(4, userRepository.count());
+        User doctor = userRepository.findWithServicesByEmail("doctor@mail.com").orElseThrow();
+        assertTrue(doctor.getPassword().startsWith("{bcrypt}"));
+        assertEquals(1, doctor.getServices().size());
+        verify(doctorIndex, times(1)).add(any());
+    }
+
+    @Test
+    public void testFailedChunkIsRetriedRowByRowWithGenericError() throws Exception {
+        UserImportProperties properties = new UserImportProperties();
+        properties.setBatchSize(3);
+        userImportService = importService(properties);
+        String ndjson = String.join("\n",
+                "{\"email\":\"first@mail.com\",\"password\":\"pacient\",\"role\":\"PATIENT\"}",
+                "{\"email\":\"second@mail.com\",\"password\":\"pacient\",\"role\":\"PATIENT\",\"phone\":\"" + "5".repeat(300) + "\"}",
+                "{\"email\":\"doctor@mail.com\",\"password\":\"doktor\",\"role\":\"DOCTOR\",\"services\":[\"GENERAL_CHECKUP\",\"DENTAL_CLEANING\"]}");
+
+        ImportResponse response = userImportService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, response.getImported());
+        assertEquals(List.of(new ImportRowError(2, "second@mail.com", "Row violates a database constraint")), response.getErrors());
+        assertTrue(userRepository.findByEmail("first@mail.com").isPresent());
+        assertTrue(userRepository.findByEmail("second@mail.com").isEmpty());
+        User doctor = userRepository.findWithServicesByEmail("doctor@mail.com").orElseThrow();
+        assertEquals(2, doctor.getServices().size());
+        assertEquals(Set.of(MedicalService.GENERAL_CHECKUP, MedicalService.DENTAL_CLEANING), Set.copyOf(doctor.getServices()));
+        verify(doctorIndex, times(1)).add(any());
+    }
+
+    @Test
+    public void testListedErrorsAreCappedButCountedInFull() throws Exception {
+        UserImportProperties properties = new UserImportProperties();
+        properties.setMaxListedErrors(2);
+        userImportService = importService(properties);
+        String ndjson = String.join("\n", "not json", "not json", "not json", "not json");
+
+        ImportResponse response = userImportService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4, response.getFailed());
+        assertEquals(List.of(1, 2), response.getErrors().stream().map(ImportRowError::line).toList());
+    }
+
+    @Test
+    public void testAdminRowsAreRejected() throws Exception {
+        String ndjson = "{\"email\":\"admin@mail.com\",\"password\":\"admin\",\"role\":\"ADMIN\"}";
+
+        ImportResponse response = userImportService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(0, response.getImported());
+        assertEquals(1, response.getFailed());
+    }
+
+    @Test
+    public void testHashingFailuresAreReportedPerRow() throws Exception {
+        passwordHashingProperties.setEncoder(PasswordEncoders.PBKDF2);
+        passwordHashingProperties.getPbkdf2().setIterations(0);
+        userImportService = importService(new UserImportProperties());
+        String ndjson = String.join("\n",
+                "{\"email\":\"first@mail.com\",\"password\":\"pacient\",\"role\":\"PATIENT\"}",
+                "{\"email\":\"existing@mail.com\",\"password\":\"pacient\",\"role\":\"PATIENT\"}");
+
+        ImportResponse response = userImportService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(0, response.getImported());
+        assertEquals(List.of(
+                new ImportRowError(1, "first@mail.com", "Password could not be hashed"),
+                new ImportRowError(2, "existing@mail.com", "User with this email already exists")),
+                response.getErrors().stream().sorted(Comparator.comparingInt(ImportRowError::line)).toList());
+        assertTrue(userRepository.findByEmail("first@mail.com").isEmpty());
+    }
+
+    private UserImportService importService(UserImportProperties properties) {
+        return new UserImportService(userRepository, doctorIndex, entityManager, new ObjectMapper(),
+                properties, passwordHashingProperties, transactionManager, hashingExecutor);
+    }
+}
@@ -0,0 +1,49 @@
+package org.task.userservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.task.userservice.entity.User;
+import org.task.userservice.enums.Role;
+import org.task.userservice.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A cache miss inside a caller's transaction must not need a second connection.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+public class UserProfileCachePoolTest {
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testMissInsideTransactionUsesCallersConnection() {
+        userRepository.save(User.builder().email("patient@mail.com").role(Role.PATIENT).build());
+
+        User user = new TransactionTemplate(transactionManager).execute(status -> {
+            userRepository.count();
+            return userProfileCache.findByEmail("patient@mail.com").orElseThrow();
+        });
+
+        assertEquals("patient@mail.com", user.getEmail());
+    }
+}
@@ -0,0 +1,114 @@
+package org.task.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.task.userservice.config.UserCacheProperties;
+import org.task.userservice.entity.User;
+import org.task.userservice.enums.MedicalService;
+import org.task.userservice.enums.Role;
+import org.task.userservice.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserProfileCacheTest {
+
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userProfileCache = new UserProfileCache(userRepository, transactionManager, new UserCacheProperties());
+        user = User.builder()
+                .id(1)
+                .firstName("Janez")
+                .lastName("Kranjski")
+                .email("testUser@mail.com")
+                .role(Role.DOCTOR)
+                .services(new ArrayList<>(List.of(MedicalService.GENERAL_CHECKUP)))
+                .build();
+    }
+
+    @Test
+    public void testFindByEmailLoadsOnce() {
+        when(userRepository.findWithServicesByEmail("testUser@mail.com")).thenReturn(Optional.of(user));
+
+        assertEquals("Janez", userProfileCache.findByEmail("testUser@mail.com").orElseThrow().getFirstName());
+        assertEquals("Janez", userProfileCache.findByEmail("testUser@mail.com").orElseThrow().getFirstName());
+
+        verify(userRepository, times(1)).findWithServicesByEmail("testUser@mail.com");
+        assertEquals(1, userProfileCache.emailStats().hitCount());
+    }
+
+    @Test
+    public void testMissLoadsOnCallingThread() {
+        AtomicReference<Thread> loadingThread = new AtomicReference<>();
+        when(userRepository.findWithServicesByEmail("testUser@mail.com")).thenAnswer(invocation -> {
+            loadingThread.set(Thread.currentThread());
+            return Optional.of(user);
+        });
+
+        userProfileCache.findByEmail("testUser@mail.com");
+
+        assertSame(Thread.currentThread(), loadingThread.get());
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        when(userRepository.findWithServicesById(1))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(Optional.of(user));
+
+        assertThrows(IllegalStateException.class, () -> userProfileCache.findById(1));
+        assertTrue(userProfileCache.findById(1).isPresent());
+    }
+
+    @Test
+    public void testFindByEmailPopulatesIdLookup() {
+        when(userRepository.findWithServicesByEmail("testUser@mail.com")).thenReturn(Optional.of(user));
+
+        userProfileCache.findByEmail("testUser@mail.com");
+
+        assertTrue(userProfileCache.findById(1).isPresent());
+        verify(userRepository, never()).findWithServicesById(1);
+    }
+
+    @Test
+    public void testMissingUserIsNotCached() {
+        when(userRepository.findWithServicesById(1)).thenReturn(Optional.empty());
+
+        assertTrue(userProfileCache.findById(1).isEmpty());
+        assertTrue(userProfileCache.findById(1).isEmpty());
+
+        verify(userRepository, times(2)).findWithServicesById(1);
+    }
+
+    @Test
+    public void testInvalidateEvictsBothKeys() {
+        when(userRepository.findWithServicesByEmail("testUser@mail.com")).thenReturn(Optional.of(user));
+        when(userRepository.findWithServicesById(1)).thenReturn(Optional.of(user));
+        userProfileCache.findByEmail("testUser@mail.com");
+
+        userProfileCache.invalidate(user);
+        userProfileCache.findByEmail("testUser@mail.com");
+        userProfileCache.findById(1);
+
+        verify(userRepository, times(2)).findWithServicesByEmail("testUser@mail.com");
+    }
+}